@@ -0,0 +1,65 @@
+package com.neo4j.data.importer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * BatchSizeController picks the number of records of the next batch from the observed write latency, query
+ * parameter size and heap usage of the previous batches.
+ * The size converges to the one matching the target batch duration, changing by a factor of 2 at most per batch,
+ * and is halved whenever the heap is under pressure. It always stays within the configured bounds.
+ */
+class BatchSizeController {
+
+    private static final double HEAP_PRESSURE_THRESHOLD = 0.8;
+
+    private static final long MAX_BATCH_PARAMETER_BYTES = 64L * 1024 * 1024;
+
+    private final DoubleSupplier heapUsage;
+    private final boolean adaptive;
+    private final long minBatchSize;
+    private final long maxBatchSize;
+    private final long targetBatchNanos;
+    private long batchSize;
+
+    BatchSizeController(ImportOptions options) {
+        this(options, BatchSizeController::currentHeapUsage);
+    }
+
+    BatchSizeController(ImportOptions options, DoubleSupplier heapUsage) {
+        this.heapUsage = heapUsage;
+        this.adaptive = options.adaptiveBatchSize();
+        this.minBatchSize = options.minBatchSize();
+        this.maxBatchSize = options.maxBatchSize();
+        this.targetBatchNanos = TimeUnit.MILLISECONDS.toNanos(options.targetBatchMillis());
+        this.batchSize = adaptive ? clamp(options.batchSize()) : options.batchSize();
+    }
+
+    public long batchSize() {
+        return batchSize;
+    }
+
+    public void batchWritten(int records, long elapsedNanos, long parameterBytes) {
+        if (!adaptive || records == 0) {
+            return;
+        }
+        double nanosPerRecord = Math.max(1, elapsedNanos) / (double) records;
+        long next = (long) (targetBatchNanos / nanosPerRecord);
+        next = Math.max(batchSize / 2, Math.min(batchSize * 2, next));
+        long bytesPerRecord = Math.max(1, parameterBytes / records);
+        next = Math.min(next, MAX_BATCH_PARAMETER_BYTES / bytesPerRecord);
+        if (heapUsage.getAsDouble() > HEAP_PRESSURE_THRESHOLD) {
+            next = Math.min(next, batchSize / 2);
+        }
+        batchSize = clamp(next);
+    }
+
+    private long clamp(long size) {
+        return Math.max(minBatchSize, Math.min(maxBatchSize, size));
+    }
+
+    private static double currentHeapUsage() {
+        var runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (double) runtime.maxMemory();
+    }
+}
@@ -0,0 +1,61 @@
+package com.neo4j.data.importer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coancestry computes kinship coefficients over a pedigree, memoizing them for every pair of persons it goes through
+ * so that shared ancestors are only visited once. It can be used by several threads at once.
+ * The coancestry of two persons is the probability that alleles drawn at random from each of them are identical by
+ * descent: it is 0 when a parent is unknown.
+ */
+class Coancestry {
+
+    private final Pedigree pedigree;
+    private final Map<Long, Double> coefficients = new ConcurrentHashMap<>();
+
+    Coancestry(Pedigree pedigree) {
+        this.pedigree = pedigree;
+    }
+
+    /**
+     * inbreeding returns the inbreeding coefficient of the person, i.e. the coancestry of its parents
+     */
+    public double inbreeding(int person) {
+        return coefficient(pedigree.firstParent(person), pedigree.secondParent(person));
+    }
+
+    /**
+     * relatedness returns Wright's coefficient of relationship, i.e. the coancestry normalized by the inbreeding of
+     * both persons
+     */
+    public double relatedness(int person1, int person2) {
+        return 2 * coefficient(person1, person2) / Math.sqrt((1 + inbreeding(person1)) * (1 + inbreeding(person2)));
+    }
+
+    /**
+     * coefficient returns the coancestry of the persons, computed from the parents of the last-ranked one: as it
+     * cannot be an ancestor of the other person, the coancestry is the average of the coancestries of its parents
+     * with the other person
+     */
+    public double coefficient(int person1, int person2) {
+        if (person1 == -1 || person2 == -1) {
+            return 0;
+        }
+        if (person1 == person2) {
+            return (1 + inbreeding(person1)) / 2;
+        }
+        int descendant = pedigree.rank(person1) > pedigree.rank(person2) ? person1 : person2;
+        int other = descendant == person1 ? person2 : person1;
+        long key = ((long) descendant << 32) | other;
+        // no computeIfAbsent, which does not support the recursive updates
+        var coefficient = coefficients.get(key);
+        if (coefficient == null) {
+            coefficient = (coefficient(pedigree.firstParent(descendant), other)
+                            + coefficient(pedigree.secondParent(descendant), other))
+                    / 2;
+            coefficients.put(key, coefficient);
+        }
+        return coefficient;
+    }
+}
@@ -0,0 +1,15 @@
+package com.neo4j.data.importer;
+
+public class ExportStatistics {
+
+    public Long personsExported = 0L;
+    public Long familiesExported = 0L;
+
+    public void addPersonsExported(long personsExported) {
+        this.personsExported += personsExported;
+    }
+
+    public void addFamiliesExported(long familiesExported) {
+        this.familiesExported += familiesExported;
+    }
+}
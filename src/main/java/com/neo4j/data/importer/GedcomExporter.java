@@ -0,0 +1,58 @@
+package com.neo4j.data.importer;
+
+import com.neo4j.data.importer.writers.FamilyRecords;
+import com.neo4j.data.importer.writers.GedcomWriter;
+import com.neo4j.data.importer.writers.PersonRecords;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.neo4j.common.DependencyResolver;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+public class GedcomExporter {
+
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Log logger;
+
+    @Context
+    public DependencyResolver dependencyResolver;
+
+    @Procedure(value = "genealogy.exportGedcom", mode = Mode.READ)
+    public Stream<ExportStatistics> exportGedcom(
+            @Name("file") String file, @Name(value = "config", defaultValue = "{}") Map<String, Object> config)
+            throws IOException {
+        var filePath = GedcomImporter.resolveInImportRoot(dependencyResolver, file);
+        var overwrite = (Boolean) config.getOrDefault("overwrite", false);
+        if (!overwrite && Files.exists(filePath)) {
+            throw new IllegalArgumentException(
+                    String.format("File %s already exists, set overwrite to true to replace it", file));
+        }
+
+        var statistics = new ExportStatistics();
+        try (Transaction tx = db.beginTx();
+                var writer = new GedcomWriter(filePath, overwrite)) {
+            writer.writeHeader();
+            statistics.addPersonsExported(PersonRecords.writeAll(tx, writer));
+            statistics.addFamiliesExported(FamilyRecords.writeAll(tx, writer));
+            writer.writeTrailer();
+            tx.commit();
+        }
+
+        logger.info(
+                "Exported {} persons, {} families to {} GEDCOM file",
+                statistics.personsExported,
+                statistics.familiesExported,
+                file);
+        return Stream.of(statistics);
+    }
+}
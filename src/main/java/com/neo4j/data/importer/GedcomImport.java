@@ -0,0 +1,149 @@
+package com.neo4j.data.importer;
+
+import com.joestelmach.natty.Parser;
+import com.neo4j.data.importer.extractors.FamilyExtractor;
+import com.neo4j.data.importer.extractors.FamilyExtractors;
+import com.neo4j.data.importer.extractors.PersonExtractors;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import org.folg.gedcom.model.Gedcom;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * GedcomImport writes the persons, then the families of a parsed GEDCOM model to the database
+ */
+class GedcomImport {
+
+    private final GraphDatabaseService db;
+    private final ImportOptions options;
+    private final List<RecordSet<?>> recordSets;
+
+    GedcomImport(GraphDatabaseService db, Gedcom model, ImportOptions options) {
+        this.db = db;
+        this.options = options;
+        var dateParser = new Parser();
+        this.recordSets = List.of(
+                new RecordSet<>(
+                        ImportPhase.PERSONS,
+                        model.getPeople(),
+                        new PersonExtractors(dateParser, model),
+                        attributes -> Map.of("attributes", attributes),
+                        null),
+                new RecordSet<>(
+                        ImportPhase.FAMILIES,
+                        model.getFamilies(),
+                        new FamilyExtractors(dateParser),
+                        UnaryOperator.identity(),
+                        FamilyExtractor::personIds));
+    }
+
+    /**
+     * importAll writes all records within a single transaction, then creates the person indexes.
+     * Cached pedigrees are invalidated afterwards, as with importInBatches.
+     * With parallel family writers, persons are committed first and families are then committed by several
+     * transactions.
+     */
+    public Statistics importAll() {
+        try {
+            var statistics = new Statistics();
+            if (options.parallelFamilies()) {
+                try (var parallelWriter = new ParallelBatchWriter(db, options.familyWriters())) {
+                    for (RecordSet<?> recordSet : recordSets) {
+                        writeBatch(recordSet, 0, recordSet.size(), statistics, parallelWriter, (tx) -> {});
+                    }
+                }
+                PersonIndexes.create(db);
+                return statistics;
+            }
+            try (Transaction tx = db.beginTx()) {
+                for (RecordSet<?> recordSet : recordSets) {
+                    recordSet.write(tx, 0, recordSet.size(), statistics);
+                }
+                tx.commit();
+            }
+            PersonIndexes.create(db);
+            return statistics;
+        } finally {
+            Pedigrees.invalidate();
+        }
+    }
+
+    /**
+     * importInBatches writes the records not covered by the checkpoint yet, one transaction per batch.
+     * The checkpoint is advanced within each batch transaction and cleared once all records are written, along with
+     * the creation of the person indexes.
+     * Cancellation is checked before each batch, leaving the checkpoint as of the last committed batch.
+     * The size of each batch is chosen by a BatchSizeController, one per phase as their records differ in cost.
+     */
+    public Statistics importInBatches(ImportCheckpoint checkpoint, ImportMonitor monitor) {
+        try (var parallelWriter =
+                options.parallelFamilies() ? new ParallelBatchWriter(db, options.familyWriters()) : null) {
+            var statistics = new Statistics();
+            for (RecordSet<?> recordSet : recordSets) {
+                monitor.phaseStarted(recordSet.phase());
+                var batchSizes = new BatchSizeController(options);
+                int size = recordSet.size();
+                long start = checkpoint.startIndex(recordSet.phase(), size);
+                while (start < size) {
+                    if (monitor.isCancelled()) {
+                        return statistics;
+                    }
+                    long batchSize = batchSizes.batchSize();
+                    int end = (int) Math.min(start + batchSize, size);
+                    int records = (int) (end - start);
+                    long startNanos = System.nanoTime();
+                    long parameterBytes = writeBatch(
+                            recordSet,
+                            (int) start,
+                            end,
+                            statistics,
+                            parallelWriter,
+                            (tx) -> checkpoint.advance(tx, recordSet.phase(), end));
+                    batchSizes.batchWritten(records, System.nanoTime() - startNanos, parameterBytes);
+                    // the chosen size, as the last batch of a phase is cut short by the remaining records
+                    statistics.addBatch(batchSize);
+                    monitor.batchCommitted(recordSet.phase(), records, statistics);
+                    start = end;
+                }
+            }
+            checkpoint.clear(db);
+            PersonIndexes.create(db);
+            monitor.importCompleted(statistics);
+            return statistics;
+        } finally {
+            // committed batches are kept even when the import fails or is cancelled
+            Pedigrees.invalidate();
+        }
+    }
+
+    /**
+     * writeBatch writes the records in one transaction, unless they can be written in parallel.
+     * beforeCommit runs in the batch transaction or, for parallel writes, in a transaction of its own afterwards.
+     * It returns the estimated size of the query parameters of the batch.
+     */
+    private long writeBatch(
+            RecordSet<?> recordSet,
+            int from,
+            int to,
+            Statistics statistics,
+            ParallelBatchWriter parallelWriter,
+            Consumer<Transaction> beforeCommit) {
+        if (parallelWriter != null && recordSet.lockedPersonIds() != null) {
+            var parameterBytes = parallelWriter.write(recordSet, from, to, statistics);
+            try (Transaction tx = db.beginTx()) {
+                beforeCommit.accept(tx);
+                tx.commit();
+            }
+            return parameterBytes;
+        }
+        try (Transaction tx = db.beginTx()) {
+            var parameterBytes = recordSet.write(tx, from, to, statistics);
+            beforeCommit.accept(tx);
+            tx.commit();
+            return parameterBytes;
+        }
+    }
+}
@@ -1,10 +1,9 @@
 package com.neo4j.data.importer;
 
-import com.joestelmach.natty.Parser;
-import com.neo4j.data.importer.extractors.FamilyExtractors;
-import com.neo4j.data.importer.extractors.PersonExtractors;
-import java.io.File;
+import com.neo4j.data.importer.cache.ParseCache;
+import com.neo4j.data.importer.charsets.GedcomCharsets;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.stream.Stream;
 import org.folg.gedcom.model.Gedcom;
@@ -13,7 +12,6 @@ import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.graphdb.GraphDatabaseService;
-import org.neo4j.graphdb.Transaction;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Mode;
@@ -23,6 +21,8 @@ import org.xml.sax.SAXParseException;
 
 public class GedcomImporter {
 
+    static final String PARSE_CACHE_DIRECTORY = "gedcom-cache";
+
     @Context
     public GraphDatabaseService db;
 
@@ -32,35 +32,22 @@ public class GedcomImporter {
     @Context
     public DependencyResolver dependencyResolver;
 
-    @Procedure(value = "genealogy.loadGedcom", mode = Mode.WRITE)
-    public Stream<Statistics> loadGedcom(@Name("file") String file) throws IOException, SAXParseException {
-        var filePath = rebuildPath(file);
-        var model = loadModel(filePath);
-
-        var dateParser = new Parser();
-        var statistics = new Statistics();
-        try (Transaction tx = db.beginTx()) {
-
-            var personExtractors = new PersonExtractors(dateParser, model);
-            model.getPeople().forEach(person -> {
-                var personExtractor = personExtractors.get();
-                var attributes = personExtractor.apply(person);
-                var personsStats = tx.execute(personExtractor.query(), Map.of("attributes", attributes))
-                        .getQueryStatistics();
-
-                personExtractor.updateCounters(personsStats, statistics);
-            });
+    @Procedure(value = "genealogy.loadGedcom", mode = Mode.SCHEMA)
+    public Stream<Statistics> loadGedcom(
+            @Name("file") String file, @Name(value = "config", defaultValue = "{}") Map<String, Object> config)
+            throws IOException, SAXParseException {
+        var options = ImportOptions.from(config);
+        var importFile = new ImportFile(file, resolveInImportRoot(dependencyResolver, file));
+        var model = loadModel(importFile, options);
 
-            var familyExtractors = new FamilyExtractors(dateParser);
-            model.getFamilies().forEach(family -> {
-                var familyExtractor = familyExtractors.get();
-                var familyStats = tx.execute(familyExtractor.query(), familyExtractor.apply(family))
-                        .getQueryStatistics();
-
-                familyExtractor.updateCounters(familyStats, statistics);
-            });
-
-            tx.commit();
+        var gedcomImport = new GedcomImport(db, model, options);
+        Statistics statistics;
+        if (options.batched()) {
+            try (var checkpoint = options.resumable() ? checkpoint(importFile) : ImportCheckpoint.untracked(file)) {
+                statistics = gedcomImport.importInBatches(checkpoint, ImportMonitor.NONE);
+            }
+        } else {
+            statistics = gedcomImport.importAll();
         }
 
         logger.info(
@@ -71,17 +58,102 @@ public class GedcomImporter {
         return Stream.of(statistics);
     }
 
+    @Procedure(value = "genealogy.loadGedcomAsync", mode = Mode.SCHEMA)
+    public Stream<ImportStatus> loadGedcomAsync(
+            @Name("file") String file, @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        var options = ImportOptions.from(config);
+        var importFile = new ImportFile(file, resolveInImportRoot(dependencyResolver, file));
+
+        var job = ImportJobs.submit(file, logger, importJob -> {
+            var model = loadModel(importFile, options);
+            Statistics statistics;
+            try (var checkpoint = options.resumable() ? checkpoint(importFile) : ImportCheckpoint.untracked(file)) {
+                statistics = new GedcomImport(db, model, options).importInBatches(checkpoint, importJob);
+            }
+            logger.info(
+                    "Created {} nodes, {} relationships from {} GEDCOM import job {}",
+                    statistics.nodesCreated,
+                    statistics.relationshipsCreated,
+                    file,
+                    importJob.id());
+        });
+        return Stream.of(job.status());
+    }
+
+    @Procedure(value = "genealogy.importStatus", mode = Mode.READ)
+    public Stream<ImportStatus> importStatus(@Name("jobId") String jobId) {
+        return Stream.of(ImportJobs.get(jobId).status());
+    }
+
+    @Procedure(value = "genealogy.cancelImport", mode = Mode.WRITE)
+    public Stream<ImportStatus> cancelImport(@Name("jobId") String jobId) {
+        var job = ImportJobs.get(jobId);
+        job.cancel();
+        return Stream.of(job.status());
+    }
+
+    /**
+     * loadModel parses the GEDCOM file, decoded with the charset given by its byte order mark or HEAD.CHAR value
+     */
     public static Gedcom loadModel(String filePath) throws IOException, SAXParseException {
         var modelParser = new ModelParser();
-        var gedcomFile = new File(filePath);
-        var gedcom = modelParser.parseGedcom(gedcomFile);
+        Gedcom gedcom;
+        try (var reader = GedcomCharsets.newReader(Path.of(filePath))) {
+            gedcom = modelParser.parseGedcom(reader);
+        }
         gedcom.createIndexes();
         return gedcom;
     }
 
-    private String rebuildPath(String fileName) {
+    private Gedcom loadModel(ImportFile importFile, ImportOptions options) throws IOException, SAXParseException {
+        if (!options.parseCache()) {
+            return loadModel(importFile.path().toString());
+        }
+        var parseCache = new ParseCache(parseCacheDirectory(dependencyResolver), logger);
+        return parseCache.load(
+                importFile.hash(), () -> loadModel(importFile.path().toString()));
+    }
+
+    private ImportCheckpoint checkpoint(ImportFile importFile) throws IOException {
+        var checkpoint = ImportCheckpoint.resume(db, importFile.name(), importFile.hash());
+        if (checkpoint.isStarted()) {
+            logger.info(
+                    "Resuming {} GEDCOM import from {} phase, after {} records",
+                    importFile.name(),
+                    checkpoint.phase(),
+                    checkpoint.processedRecords());
+        }
+        return checkpoint;
+    }
+
+    /**
+     * resolveInImportRoot resolves the file against the import root, rejecting any file outside of it
+     */
+    static Path resolveInImportRoot(DependencyResolver dependencyResolver, String fileName) {
+        Config config = dependencyResolver.resolveDependency(Config.class);
+        var fileRoot = config.get(GraphDatabaseSettings.load_csv_file_url_root)
+                .toAbsolutePath()
+                .normalize();
+        var result = fileRoot.resolve(fileName).normalize();
+        if (!result.startsWith(fileRoot) || result.equals(fileRoot)) {
+            throw new IllegalArgumentException(
+                    String.format("File must be located in the import directory (%s), got: %s", fileRoot, fileName));
+        }
+        return result;
+    }
+
+    /**
+     * parseCacheDirectory returns the PARSE_CACHE_DIRECTORY sibling of the import root
+     */
+    static Path parseCacheDirectory(DependencyResolver dependencyResolver) {
         Config config = dependencyResolver.resolveDependency(Config.class);
-        var fileRoot = config.get(GraphDatabaseSettings.load_csv_file_url_root);
-        return fileRoot + "/" + fileName;
+        var fileRoot = config.get(GraphDatabaseSettings.load_csv_file_url_root)
+                .toAbsolutePath()
+                .normalize();
+        if (fileRoot.getParent() == null) {
+            throw new IllegalStateException(
+                    String.format("The parse cache requires an import directory other than %s", fileRoot));
+        }
+        return fileRoot.resolveSibling(PARSE_CACHE_DIRECTORY);
     }
 }
@@ -0,0 +1,147 @@
+package com.neo4j.data.importer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * ImportCheckpoint tracks, in the database, how far a resumable import of a given file went.
+ * Untracked checkpoints only keep the progress in memory.
+ * A resumed checkpoint is held by its import until closed: as the checkpoint node is read and advanced by successive
+ * transactions, no lock could cover the whole import, so resuming the import of the same file into the same database
+ * is refused meanwhile.
+ */
+class ImportCheckpoint implements AutoCloseable {
+
+    static final Label LABEL = Label.label("GedcomImportCheckpoint");
+
+    private static final Set<String> HELD_CHECKPOINTS = ConcurrentHashMap.newKeySet();
+
+    private final String file;
+    private final String hash;
+    private final boolean persistent;
+    private final String holdKey;
+    private ImportPhase phase;
+    private long processedRecords;
+
+    private ImportCheckpoint(
+            String file, String hash, String holdKey, boolean persistent, ImportPhase phase, long processedRecords) {
+        this.file = file;
+        this.hash = hash;
+        this.holdKey = holdKey;
+        this.persistent = persistent;
+        this.phase = phase;
+        this.processedRecords = processedRecords;
+    }
+
+    /**
+     * resume loads the checkpoint of the file and holds it until closed.
+     * It fails if another import of the file is running, or if the file content changed since, as the records
+     * committed by the earlier import remain in the graph and starting over would duplicate them.
+     */
+    public static ImportCheckpoint resume(GraphDatabaseService db, String file, String hash) {
+        var holdKey = db.databaseName() + "/" + file;
+        if (!HELD_CHECKPOINTS.add(holdKey)) {
+            throw new IllegalStateException(
+                    String.format("A resumable import of %s is already running, retry once it finished", file));
+        }
+        try (Transaction tx = db.beginTx()) {
+            var node = tx.findNode(LABEL, "file", file);
+            if (node == null) {
+                return new ImportCheckpoint(file, hash, holdKey, true, ImportPhase.PERSONS, 0);
+            }
+            if (!hash.equals(node.getProperty("hash", null))) {
+                throw new IllegalStateException(String.format(
+                        "Found a stale :%s node for %s, left by an earlier import of different file content: "
+                                + "the records it committed remain in the graph. "
+                                + "Delete them and the checkpoint node before importing the file again",
+                        LABEL.name(), file));
+            }
+            var phase = ImportPhase.valueOf((String) node.getProperty("phase"));
+            var processedRecords = (Long) node.getProperty("processed_records");
+            return new ImportCheckpoint(file, hash, holdKey, true, phase, processedRecords);
+        } catch (RuntimeException e) {
+            HELD_CHECKPOINTS.remove(holdKey);
+            throw e;
+        }
+    }
+
+    public static ImportCheckpoint untracked(String file) {
+        return new ImportCheckpoint(file, null, null, false, ImportPhase.PERSONS, 0);
+    }
+
+    public ImportPhase phase() {
+        return phase;
+    }
+
+    public long processedRecords() {
+        return processedRecords;
+    }
+
+    public boolean isStarted() {
+        return phase != ImportPhase.PERSONS || processedRecords > 0;
+    }
+
+    /**
+     * startIndex returns the index of the first record of the phase that is not committed yet
+     */
+    public long startIndex(ImportPhase phase, long recordCount) {
+        int comparison = phase.compareTo(this.phase);
+        if (comparison < 0) {
+            return recordCount;
+        }
+        if (comparison > 0) {
+            return 0;
+        }
+        return Math.min(processedRecords, recordCount);
+    }
+
+    /**
+     * advance records the progress within the given transaction, so that it is committed along with the batch
+     */
+    public void advance(Transaction tx, ImportPhase phase, long processedRecords) {
+        this.phase = phase;
+        this.processedRecords = processedRecords;
+        if (!persistent) {
+            return;
+        }
+        var node = tx.findNode(LABEL, "file", file);
+        if (node == null) {
+            node = tx.createNode(LABEL);
+            node.setProperty("file", file);
+        }
+        write(node);
+    }
+
+    public void clear(GraphDatabaseService db) {
+        if (!persistent) {
+            return;
+        }
+        try (Transaction tx = db.beginTx()) {
+            var node = tx.findNode(LABEL, "file", file);
+            if (node != null) {
+                node.delete();
+            }
+            tx.commit();
+        }
+    }
+
+    /**
+     * close releases the checkpoint, so that the file can be imported again
+     */
+    @Override
+    public void close() {
+        if (holdKey != null) {
+            HELD_CHECKPOINTS.remove(holdKey);
+        }
+    }
+
+    private void write(Node node) {
+        node.setProperty("hash", hash);
+        node.setProperty("phase", phase.name());
+        node.setProperty("processed_records", processedRecords);
+    }
+}
@@ -0,0 +1,34 @@
+package com.neo4j.data.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * ImportFile is a GEDCOM file of the import directory, whose content hash is computed at most once per import
+ */
+class ImportFile {
+
+    private final String name;
+    private final Path path;
+    private String hash;
+
+    ImportFile(String name, Path path) {
+        this.name = name;
+        this.path = path;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public String hash() throws IOException {
+        if (hash == null) {
+            hash = FileDigests.sha256(path);
+        }
+        return hash;
+    }
+}
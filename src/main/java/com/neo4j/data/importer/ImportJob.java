@@ -0,0 +1,113 @@
+package com.neo4j.data.importer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImportJob tracks a background import. Its progress is published by the import thread after each committed batch.
+ */
+class ImportJob implements ImportMonitor {
+
+    enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private final String id;
+    private final String file;
+    private final long startNanos = System.nanoTime();
+    private volatile State state = State.RUNNING;
+    private volatile ImportPhase phase = ImportPhase.PARSING;
+    private volatile Statistics statistics = new Statistics();
+    private volatile long processedRecords;
+    private volatile long endNanos;
+    private volatile boolean cancelRequested;
+    private volatile String error;
+
+    ImportJob(String id, String file) {
+        this.id = id;
+        this.file = file;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    /**
+     * failed records the failure of the import, named after its class when it has no message
+     */
+    public void failed(Throwable failure) {
+        error = failure.getMessage() != null
+                ? failure.getMessage()
+                : failure.getClass().getName();
+        finish(State.FAILED);
+    }
+
+    /**
+     * stopped records the outcome of the import once it returned without error
+     */
+    public void stopped() {
+        if (state == State.RUNNING) {
+            finish(State.CANCELLED);
+        }
+    }
+
+    @Override
+    public void phaseStarted(ImportPhase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public void batchCommitted(ImportPhase phase, int batchRecords, Statistics statistics) {
+        this.statistics = statistics.copy();
+        this.processedRecords += batchRecords;
+    }
+
+    @Override
+    public void importCompleted(Statistics statistics) {
+        this.statistics = statistics.copy();
+        finish(State.COMPLETED);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    /**
+     * finishedFor returns how long ago the job finished, or -1 while it is running
+     */
+    public long finishedFor(long nowNanos) {
+        // state is published after endNanos, see finish
+        return state == State.RUNNING ? -1 : nowNanos - endNanos;
+    }
+
+    public ImportStatus status() {
+        var currentStatistics = statistics;
+        var currentEndNanos = endNanos;
+        long elapsedNanos = (state == State.RUNNING ? System.nanoTime() : currentEndNanos) - startNanos;
+        var result = new ImportStatus();
+        result.jobId = id;
+        result.file = file;
+        result.state = state.name();
+        result.phase = phase.name();
+        result.nodesCreated = currentStatistics.nodesCreated;
+        result.relationshipsCreated = currentStatistics.relationshipsCreated;
+        result.processedRecords = processedRecords;
+        result.lastBatchSize = currentStatistics.lastBatchSize;
+        result.recordsPerSecond =
+                elapsedNanos > 0 ? processedRecords * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0.0;
+        result.error = error;
+        return result;
+    }
+
+    private void finish(State state) {
+        this.endNanos = System.nanoTime();
+        this.state = state;
+    }
+}
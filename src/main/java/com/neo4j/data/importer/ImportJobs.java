@@ -0,0 +1,90 @@
+package com.neo4j.data.importer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.neo4j.logging.Log;
+
+/**
+ * ImportJobs runs imports on background threads, at most MAX_RUNNING_JOBS at once, and keeps track of them until
+ * JOB_RETENTION after they finished
+ */
+class ImportJobs {
+
+    static final int MAX_RUNNING_JOBS = 4;
+
+    static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private static final Map<String, ImportJob> JOBS = new ConcurrentHashMap<>();
+
+    private static final Semaphore RUNNING_JOBS = new Semaphore(MAX_RUNNING_JOBS);
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newCachedThreadPool(ParallelTasks.daemonThreads("gedcom-import"));
+
+    @FunctionalInterface
+    interface ImportTask {
+        void run(ImportJob job) throws Exception;
+    }
+
+    public static ImportJob submit(String file, Log logger, ImportTask task) {
+        evictFinished(System.nanoTime());
+        if (!RUNNING_JOBS.tryAcquire()) {
+            throw new IllegalStateException(String.format(
+                    "Cannot run more than %d GEDCOM imports in the background at once, retry once one of them finished",
+                    MAX_RUNNING_JOBS));
+        }
+        var job = new ImportJob(UUID.randomUUID().toString(), file);
+        JOBS.put(job.id(), job);
+        try {
+            EXECUTOR.execute(() -> {
+                Throwable failure = null;
+                try {
+                    task.run(job);
+                } catch (Throwable e) {
+                    // errors such as OutOfMemoryError must not leave the job running forever
+                    failure = e;
+                } finally {
+                    // released before the job is seen as finished, so that a new job can start right away
+                    RUNNING_JOBS.release();
+                }
+                if (failure == null) {
+                    job.stopped();
+                    return;
+                }
+                job.failed(failure);
+                logger.error(String.format("GEDCOM import job %s of %s failed", job.id(), file), failure);
+                if (failure instanceof Error error) {
+                    throw error;
+                }
+            });
+        } catch (RuntimeException e) {
+            JOBS.remove(job.id());
+            RUNNING_JOBS.release();
+            throw e;
+        }
+        return job;
+    }
+
+    public static ImportJob get(String jobId) {
+        evictFinished(System.nanoTime());
+        var job = JOBS.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException(String.format(
+                    "No GEDCOM import job with id: %s (jobs are forgotten %d minutes after they finished)",
+                    jobId, JOB_RETENTION.toMinutes()));
+        }
+        return job;
+    }
+
+    /**
+     * evictFinished forgets the jobs that finished more than JOB_RETENTION before the given time
+     */
+    static void evictFinished(long nowNanos) {
+        JOBS.values().removeIf(job -> job.finishedFor(nowNanos) > JOB_RETENTION.toNanos());
+    }
+}
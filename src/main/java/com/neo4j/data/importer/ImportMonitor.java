@@ -0,0 +1,19 @@
+package com.neo4j.data.importer;
+
+/**
+ * ImportMonitor is notified of the progress of batched imports and can stop them between batches
+ */
+interface ImportMonitor {
+
+    ImportMonitor NONE = new ImportMonitor() {};
+
+    default void phaseStarted(ImportPhase phase) {}
+
+    default void batchCommitted(ImportPhase phase, int batchRecords, Statistics statistics) {}
+
+    default void importCompleted(Statistics statistics) {}
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
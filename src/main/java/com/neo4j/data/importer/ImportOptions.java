@@ -0,0 +1,66 @@
+package com.neo4j.data.importer;
+
+import java.util.Map;
+
+record ImportOptions(
+        boolean resumable,
+        long batchSize,
+        int familyWriters,
+        boolean adaptiveBatchSize,
+        long minBatchSize,
+        long maxBatchSize,
+        long targetBatchMillis,
+        boolean parseCache) {
+
+    private static final long DEFAULT_BATCH_SIZE = 1000;
+    private static final long DEFAULT_MIN_BATCH_SIZE = 10;
+    private static final long DEFAULT_MAX_BATCH_SIZE = 100_000;
+    private static final long DEFAULT_TARGET_BATCH_MILLIS = 500;
+
+    ImportOptions {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("batchSize must be strictly positive, got: %d", batchSize));
+        }
+        if (familyWriters <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("familyWriters must be strictly positive, got: %d", familyWriters));
+        }
+        if (resumable && familyWriters > 1) {
+            // families of a batch are committed by several transactions, which a checkpoint cannot cover atomically
+            throw new IllegalArgumentException("familyWriters cannot be greater than 1 for resumable imports");
+        }
+        if (minBatchSize <= 0 || minBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException(String.format(
+                    "minBatchSize must be strictly positive and at most maxBatchSize (%d), got: %d",
+                    maxBatchSize, minBatchSize));
+        }
+        if (targetBatchMillis <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("targetBatchMillis must be strictly positive, got: %d", targetBatchMillis));
+        }
+    }
+
+    public static ImportOptions from(Map<String, Object> config) {
+        return new ImportOptions(
+                (Boolean) config.getOrDefault("resumable", false),
+                ((Number) config.getOrDefault("batchSize", DEFAULT_BATCH_SIZE)).longValue(),
+                ((Number) config.getOrDefault("familyWriters", 1)).intValue(),
+                (Boolean) config.getOrDefault("adaptiveBatchSize", false),
+                ((Number) config.getOrDefault("minBatchSize", DEFAULT_MIN_BATCH_SIZE)).longValue(),
+                ((Number) config.getOrDefault("maxBatchSize", DEFAULT_MAX_BATCH_SIZE)).longValue(),
+                ((Number) config.getOrDefault("targetBatchMillis", DEFAULT_TARGET_BATCH_MILLIS)).longValue(),
+                (Boolean) config.getOrDefault("parseCache", false));
+    }
+
+    /**
+     * batched tells whether synchronous imports commit in batches rather than in a single transaction
+     */
+    public boolean batched() {
+        return resumable || adaptiveBatchSize;
+    }
+
+    public boolean parallelFamilies() {
+        return familyWriters > 1;
+    }
+}
@@ -0,0 +1,7 @@
+package com.neo4j.data.importer;
+
+enum ImportPhase {
+    PARSING,
+    PERSONS,
+    FAMILIES
+}
@@ -0,0 +1,15 @@
+package com.neo4j.data.importer;
+
+public class ImportStatus {
+
+    public String jobId;
+    public String file;
+    public String state;
+    public String phase;
+    public Long nodesCreated;
+    public Long relationshipsCreated;
+    public Long processedRecords;
+    public Long lastBatchSize;
+    public Double recordsPerSecond;
+    public String error;
+}
@@ -0,0 +1,14 @@
+package com.neo4j.data.importer;
+
+import org.neo4j.graphdb.Node;
+
+public class InbreedingCoefficient {
+
+    public Node person;
+    public Double coefficient;
+
+    public InbreedingCoefficient(Node person, Double coefficient) {
+        this.person = person;
+        this.coefficient = coefficient;
+    }
+}
@@ -0,0 +1,14 @@
+package com.neo4j.data.importer;
+
+import org.neo4j.graphdb.Node;
+
+public class NameMatch {
+
+    public Node person;
+    public Double score;
+
+    public NameMatch(Node person, Double score) {
+        this.person = person;
+        this.score = score;
+    }
+}
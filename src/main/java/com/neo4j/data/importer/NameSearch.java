@@ -0,0 +1,80 @@
+package com.neo4j.data.importer;
+
+import com.neo4j.data.importer.extractors.NameKeys;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.graphdb.schema.Schema;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+public class NameSearch {
+
+    private static final long INDEX_POPULATION_TIMEOUT_MINUTES = 5;
+
+    private static final Label PERSON = Label.label("Person");
+
+    @Context
+    public Transaction tx;
+
+    @Procedure(value = "genealogy.searchName", mode = Mode.READ)
+    public Stream<NameMatch> searchName(
+            @Name("name") String name, @Name(value = "limit", defaultValue = "25") Long limit) {
+        var terms = NameKeys.searchTerms(name);
+        if (terms.isEmpty()) {
+            return Stream.empty();
+        }
+        var index = nameSearchIndex(tx.schema());
+        if (index.isEmpty()) {
+            try (var persons = tx.findNodes(PERSON)) {
+                if (persons.hasNext()) {
+                    throw new IllegalStateException(String.format(
+                            "The %s index is missing: persons imported by an earlier version have no name search keys, "
+                                    + "import the GEDCOM files again",
+                            PersonIndexes.NAME_SEARCH_KEYS_INDEX));
+                }
+            }
+            // nothing imported yet
+            return Stream.empty();
+        }
+        awaitIndex(tx.schema(), index.get());
+
+        return tx
+                .execute(
+                        """
+                        CALL db.index.fulltext.queryNodes($index, $query, {limit: $limit})
+                        YIELD node, score
+                        RETURN node, score
+                        """,
+                        Map.of(
+                                "index",
+                                PersonIndexes.NAME_SEARCH_KEYS_INDEX,
+                                "query",
+                                String.join(" ", terms),
+                                "limit",
+                                limit))
+                .stream()
+                .map(row -> new NameMatch((Node) row.get("node"), (Double) row.get("score")));
+    }
+
+    private static Optional<IndexDefinition> nameSearchIndex(Schema schema) {
+        // unlike getIndexByName, this does not fail when the index is missing
+        return StreamSupport.stream(schema.getIndexes().spliterator(), false)
+                .filter(index -> index.getName().equals(PersonIndexes.NAME_SEARCH_KEYS_INDEX))
+                .findFirst();
+    }
+
+    private static void awaitIndex(Schema schema, IndexDefinition index) {
+        if (schema.getIndexState(index) == Schema.IndexState.POPULATING) {
+            schema.awaitIndexOnline(index, INDEX_POPULATION_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.neo4j.data.importer;
+
+import com.neo4j.data.importer.RecordSet.PreparedWrite;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * ParallelBatchWriter writes records with several concurrent transactions.
+ * Records are scheduled in waves, so that no two records of a wave link the same person: the transactions of a wave
+ * never compete for the same node locks and therefore cannot deadlock. Waves are written one after the other.
+ */
+class ParallelBatchWriter implements AutoCloseable {
+
+    private final GraphDatabaseService db;
+    private final int writers;
+    private final ExecutorService executor;
+
+    ParallelBatchWriter(GraphDatabaseService db, int writers) {
+        this.db = db;
+        this.writers = writers;
+        this.executor = Executors.newFixedThreadPool(writers, ParallelTasks.daemonThreads("gedcom-writer"));
+    }
+
+    /**
+     * write executes the queries of the records and returns the estimated size of their parameters
+     */
+    public <T> long write(RecordSet<T> recordSet, int from, int to, Statistics statistics) {
+        // extraction (and its date parsing) stays on the calling thread, only query execution is parallel
+        var writes = recordSet.records().subList(from, to).stream()
+                .map(recordSet::prepare)
+                .toList();
+        for (var wave : waves(writes, write -> recordSet.lockedPersonIds().apply(write.parameters()))) {
+            writeWave(wave, statistics);
+        }
+        return writes.stream().mapToLong(PreparedWrite::estimatedSize).sum();
+    }
+
+    /**
+     * waves assigns each write to the first wave none of its persons belongs to yet
+     */
+    static <W> List<List<W>> waves(List<W> writes, Function<W, Set<String>> lockedPersonIds) {
+        var wavesByPerson = new HashMap<String, BitSet>();
+        var result = new ArrayList<List<W>>();
+        for (W write : writes) {
+            var personIds = lockedPersonIds.apply(write);
+            var takenWaves = new BitSet();
+            for (String personId : personIds) {
+                var personWaves = wavesByPerson.get(personId);
+                if (personWaves != null) {
+                    takenWaves.or(personWaves);
+                }
+            }
+            int wave = takenWaves.nextClearBit(0);
+            if (wave == result.size()) {
+                result.add(new ArrayList<>());
+            }
+            result.get(wave).add(write);
+            for (String personId : personIds) {
+                wavesByPerson.computeIfAbsent(personId, (key) -> new BitSet()).set(wave);
+            }
+        }
+        return result;
+    }
+
+    private void writeWave(List<PreparedWrite> wave, Statistics statistics) {
+        int sliceSize = (wave.size() + writers - 1) / writers;
+        var tasks = new ArrayList<Callable<Statistics>>(writers);
+        for (int start = 0; start < wave.size(); start += sliceSize) {
+            var slice = wave.subList(start, Math.min(start + sliceSize, wave.size()));
+            tasks.add(() -> writeSlice(slice));
+        }
+        for (Statistics sliceStatistics : ParallelTasks.invokeAll(executor, tasks, "writing records")) {
+            statistics.add(sliceStatistics);
+        }
+    }
+
+    private Statistics writeSlice(List<PreparedWrite> slice) {
+        var statistics = new Statistics();
+        try (Transaction tx = db.beginTx()) {
+            for (PreparedWrite write : slice) {
+                write.execute(tx, statistics);
+            }
+            tx.commit();
+        }
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
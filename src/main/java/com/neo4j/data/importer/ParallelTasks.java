@@ -0,0 +1,57 @@
+package com.neo4j.data.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParallelTasks gathers the thread and task handling shared by the executors of the plugin.
+ */
+final class ParallelTasks {
+
+    private static final Map<String, AtomicInteger> THREAD_COUNTS = new ConcurrentHashMap<>();
+
+    private ParallelTasks() {}
+
+    /**
+     * daemonThreads creates daemon threads named after the given prefix, so that they never keep the database from
+     * shutting down
+     */
+    public static ThreadFactory daemonThreads(String namePrefix) {
+        var threadCount = THREAD_COUNTS.computeIfAbsent(namePrefix, (key) -> new AtomicInteger());
+        return runnable -> {
+            var thread = new Thread(runnable, String.format("%s-%d", namePrefix, threadCount.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * invokeAll runs the tasks and returns their results in order, rethrowing the first failure as is when it is
+     * unchecked. The activity names what the tasks do in error messages, e.g. "writing records".
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks, String activity) {
+        try {
+            var results = new ArrayList<T>(tasks.size());
+            for (Future<T> task : executor.invokeAll(tasks)) {
+                results.add(task.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while %s", activity), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(String.format("Failed while %s", activity), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.neo4j.data.importer;
+
+import java.util.Collection;
+import java.util.Map;
+
+class ParameterSizes {
+
+    /**
+     * estimate approximates the heap footprint, in bytes, of query parameters
+     */
+    public static long estimate(Object value) {
+        if (value instanceof String string) {
+            return 40 + 2L * string.length();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long result = 48;
+            for (var entry : map.entrySet()) {
+                result += 32 + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return result;
+        }
+        if (value instanceof Collection<?> collection) {
+            long result = 24;
+            for (var item : collection) {
+                result += 8 + estimate(item);
+            }
+            return result;
+        }
+        return 24;
+    }
+}
@@ -0,0 +1,264 @@
+package com.neo4j.data.importer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * Pedigree is a compact, read-only projection of the :Person nodes and their CHILD_OF relationships.
+ * Persons are identified by an int index and their parents are stored in two arrays, -1 standing for an unknown
+ * parent. The index of a person is the position of the 64-bit hash of its element id in a sorted array, searched by
+ * bisection: persons whose hashes collide are the only ones indexed through a map.
+ * Persons with more than two parents (e.g. listed as child of several families) keep the two with the lowest index.
+ * Persons are also ranked in topological order, so that parents always rank before their children: parent links
+ * closing a cycle, which only erroneous files hold, are dropped.
+ */
+class Pedigree {
+
+    private static final Label PERSON = Label.label("Person");
+    private static final RelationshipType CHILD_OF = RelationshipType.withName("CHILD_OF");
+
+    private final long generation;
+    private final long[] sortedHashes;
+    private final Map<String, Integer> collidingIndexes;
+    private final int[] firstParents;
+    private final int[] secondParents;
+    private int[] ranks;
+
+    private Pedigree(
+            long generation,
+            long[] sortedHashes,
+            Map<String, Integer> collidingIndexes,
+            int[] firstParents,
+            int[] secondParents) {
+        this.generation = generation;
+        this.sortedHashes = sortedHashes;
+        this.collidingIndexes = collidingIndexes;
+        this.firstParents = firstParents;
+        this.secondParents = secondParents;
+    }
+
+    /**
+     * build reads the pedigree of all persons, tagging it with the import generation it reflects
+     */
+    public static Pedigree build(Transaction tx, long generation) {
+        var hashes = new long[1024];
+        int size = 0;
+        try (var persons = tx.findNodes(PERSON)) {
+            while (persons.hasNext()) {
+                if (size == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, size * 2);
+                }
+                hashes[size++] = hash(persons.next().getElementId());
+            }
+        }
+        var sortedHashes = Arrays.copyOf(hashes, size);
+        Arrays.sort(sortedHashes);
+        var collidingIndexes = collidingIndexes(tx, sortedHashes);
+
+        var pedigree = new Pedigree(generation, sortedHashes, collidingIndexes, new int[size], new int[size]);
+        Arrays.fill(pedigree.firstParents, -1);
+        Arrays.fill(pedigree.secondParents, -1);
+        try (var persons = tx.findNodes(PERSON)) {
+            persons.forEachRemaining(person -> {
+                int child = pedigree.index(person);
+                try (var relationships = person.getRelationships(Direction.OUTGOING, CHILD_OF)) {
+                    for (Relationship childOf : relationships) {
+                        int parent = pedigree.index(childOf.getEndNode());
+                        if (parent != -1) {
+                            addParent(pedigree.firstParents, pedigree.secondParents, child, parent);
+                        }
+                    }
+                }
+            });
+        }
+        return pedigree.ranked();
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public int size() {
+        return firstParents.length;
+    }
+
+    /**
+     * index returns the index of the person, or -1 when the node was not a person when the pedigree was built
+     */
+    public int index(Node person) {
+        if (!person.hasLabel(PERSON)) {
+            return -1;
+        }
+        var elementId = person.getElementId();
+        int position = Arrays.binarySearch(sortedHashes, hash(elementId));
+        if (position < 0) {
+            return -1;
+        }
+        if (isColliding(sortedHashes, position)) {
+            return collidingIndexes.getOrDefault(elementId, -1);
+        }
+        return position;
+    }
+
+    public int firstParent(int person) {
+        return firstParents[person];
+    }
+
+    public int secondParent(int person) {
+        return secondParents[person];
+    }
+
+    /**
+     * rank returns the topological rank of the person, a person never ranks after its descendants
+     */
+    public int rank(int person) {
+        return ranks[person];
+    }
+
+    private Pedigree ranked() {
+        this.ranks = rank(firstParents, secondParents);
+        return this;
+    }
+
+    /**
+     * collidingIndexes assigns the positions of hashes shared by several persons to these persons, in node order
+     */
+    private static Map<String, Integer> collidingIndexes(Transaction tx, long[] sortedHashes) {
+        var result = new HashMap<String, Integer>();
+        boolean hasCollisions = false;
+        for (int i = 1; i < sortedHashes.length && !hasCollisions; i++) {
+            hasCollisions = sortedHashes[i] == sortedHashes[i - 1];
+        }
+        if (!hasCollisions) {
+            return result;
+        }
+        var nextPositions = new HashMap<Long, Integer>();
+        try (var persons = tx.findNodes(PERSON)) {
+            persons.forEachRemaining(person -> {
+                long hash = hash(person.getElementId());
+                int position = Arrays.binarySearch(sortedHashes, hash);
+                if (isColliding(sortedHashes, position)) {
+                    int first = position;
+                    while (first > 0 && sortedHashes[first - 1] == hash) {
+                        first--;
+                    }
+                    int next = nextPositions.merge(hash, first, (current, ignored) -> current + 1);
+                    result.put(person.getElementId(), next);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static boolean isColliding(long[] sortedHashes, int position) {
+        return (position > 0 && sortedHashes[position - 1] == sortedHashes[position])
+                || (position < sortedHashes.length - 1 && sortedHashes[position + 1] == sortedHashes[position]);
+    }
+
+    /**
+     * hash computes the 64-bit FNV-1a hash of the element id, with the MurmurHash3 finalizer for better spread
+     */
+    private static long hash(String elementId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < elementId.length(); i++) {
+            hash ^= elementId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static void addParent(int[] firstParents, int[] secondParents, int child, int parent) {
+        // parents are kept sorted by index, so that the pedigree does not depend on relationship order
+        if (parent == firstParents[child] || parent == secondParents[child]) {
+            return;
+        }
+        if (firstParents[child] == -1) {
+            firstParents[child] = parent;
+        } else if (secondParents[child] == -1) {
+            secondParents[child] = Math.max(firstParents[child], parent);
+            firstParents[child] = Math.min(firstParents[child], parent);
+        } else if (parent < secondParents[child]) {
+            secondParents[child] = Math.max(firstParents[child], parent);
+            firstParents[child] = Math.min(firstParents[child], parent);
+        }
+    }
+
+    /**
+     * rank sorts persons topologically (Kahn's algorithm). When only persons within or below a cycle remain, the
+     * links to unranked parents of the next one are dropped.
+     */
+    private static int[] rank(int[] firstParents, int[] secondParents) {
+        int size = firstParents.length;
+        var childOffsets = new int[size + 1];
+        var parentCounts = new int[size];
+        for (int person = 0; person < size; person++) {
+            for (int parent : new int[] {firstParents[person], secondParents[person]}) {
+                if (parent != -1) {
+                    childOffsets[parent + 1]++;
+                    parentCounts[person]++;
+                }
+            }
+        }
+        for (int person = 0; person < size; person++) {
+            childOffsets[person + 1] += childOffsets[person];
+        }
+        var children = new int[childOffsets[size]];
+        var childCounts = new int[size];
+        for (int person = 0; person < size; person++) {
+            for (int parent : new int[] {firstParents[person], secondParents[person]}) {
+                if (parent != -1) {
+                    children[childOffsets[parent] + childCounts[parent]++] = person;
+                }
+            }
+        }
+
+        var ranks = new int[size];
+        Arrays.fill(ranks, -1);
+        var ready = new ArrayDeque<Integer>();
+        for (int person = 0; person < size; person++) {
+            if (parentCounts[person] == 0) {
+                ready.add(person);
+            }
+        }
+        int nextRank = 0;
+        int nextUnranked = 0;
+        while (nextRank < size) {
+            if (ready.isEmpty()) {
+                while (ranks[nextUnranked] != -1) {
+                    nextUnranked++;
+                }
+                if (firstParents[nextUnranked] != -1 && ranks[firstParents[nextUnranked]] == -1) {
+                    firstParents[nextUnranked] = -1;
+                }
+                if (secondParents[nextUnranked] != -1 && ranks[secondParents[nextUnranked]] == -1) {
+                    secondParents[nextUnranked] = -1;
+                }
+                ready.add(nextUnranked);
+                // the dropped parents must not rank it a second time
+                parentCounts[nextUnranked] = -1;
+            }
+            int person = ready.poll();
+            ranks[person] = nextRank++;
+            for (int i = childOffsets[person]; i < childOffsets[person + 1]; i++) {
+                int child = children[i];
+                if (--parentCounts[child] == 0) {
+                    ready.add(child);
+                }
+            }
+        }
+        return ranks;
+    }
+}
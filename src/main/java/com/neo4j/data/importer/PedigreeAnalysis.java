@@ -0,0 +1,111 @@
+package com.neo4j.data.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+/**
+ * PedigreeAnalysis computes inbreeding and relatedness coefficients over the cached pedigree of the database.
+ * Coefficients of the requested persons are computed in parallel, sharing the memoized coancestries.
+ */
+public class PedigreeAnalysis {
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newFixedThreadPool(PARALLELISM, ParallelTasks.daemonThreads("gedcom-pedigree"));
+
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Transaction tx;
+
+    @Procedure(value = "genealogy.inbreeding", mode = Mode.READ)
+    public Stream<InbreedingCoefficient> inbreeding(@Name("persons") List<Node> persons) {
+        var pedigree = Pedigrees.get(db, tx, persons);
+        var indexes = indexes(pedigree, persons);
+        var coancestry = new Coancestry(pedigree);
+
+        var coefficients = computeAll(indexes.length, i -> coancestry.inbreeding(indexes[i]));
+        return IntStream.range(0, indexes.length)
+                .mapToObj(i -> new InbreedingCoefficient(persons.get(i), coefficients[i]));
+    }
+
+    @Procedure(value = "genealogy.relatedness", mode = Mode.READ)
+    public Stream<Relatedness> relatedness(@Name("persons") List<Node> persons) {
+        var pedigree = Pedigrees.get(db, tx, persons);
+        var indexes = indexes(pedigree, persons);
+        var coancestry = new Coancestry(pedigree);
+
+        int pairCount = Math.toIntExact((long) indexes.length * (indexes.length - 1) / 2);
+        var firsts = new int[pairCount];
+        var seconds = new int[pairCount];
+        for (int i = 0, pair = 0; i < indexes.length; i++) {
+            for (int j = i + 1; j < indexes.length; j++, pair++) {
+                firsts[pair] = i;
+                seconds[pair] = j;
+            }
+        }
+        // relatedness normalizes the coancestry with inbreeding coefficients, which pairs do not necessarily compute
+        computeAll(indexes.length, i -> coancestry.inbreeding(indexes[i]));
+        var coefficients =
+                computeAll(pairCount, pair -> coancestry.coefficient(indexes[firsts[pair]], indexes[seconds[pair]]));
+        // both coancestry and inbreeding coefficients are memoized by now
+        return IntStream.range(0, pairCount)
+                .mapToObj(pair -> new Relatedness(
+                        persons.get(firsts[pair]),
+                        persons.get(seconds[pair]),
+                        coefficients[pair],
+                        coancestry.relatedness(indexes[firsts[pair]], indexes[seconds[pair]])));
+    }
+
+    @Procedure(value = "genealogy.clearPedigreeCache", mode = Mode.READ)
+    public void clearPedigreeCache() {
+        Pedigrees.clear();
+    }
+
+    private static int[] indexes(Pedigree pedigree, List<Node> persons) {
+        var result = new int[persons.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = pedigree.index(persons.get(i));
+            if (result[i] == -1) {
+                throw new IllegalArgumentException(String.format(
+                        "Expected a :Person node, got: %s", persons.get(i).getElementId()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * computeAll computes the values of all indexes, each thread taking every PARALLELISM-th index so that the costly
+     * ones are spread among threads
+     */
+    private static double[] computeAll(int count, IntToDoubleFunction computation) {
+        var results = new double[count];
+        var tasks = new ArrayList<Callable<Void>>(PARALLELISM);
+        for (int slice = 0; slice < Math.min(PARALLELISM, count); slice++) {
+            int first = slice;
+            tasks.add(() -> {
+                for (int i = first; i < count; i += PARALLELISM) {
+                    results[i] = computation.applyAsDouble(i);
+                }
+                return null;
+            });
+        }
+        ParallelTasks.invokeAll(EXECUTOR, tasks, "computing coefficients");
+        return results;
+    }
+}
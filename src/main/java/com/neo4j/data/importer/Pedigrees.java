@@ -0,0 +1,62 @@
+package com.neo4j.data.importer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * Pedigrees caches the pedigree of each database until the next GEDCOM import.
+ * Changes to persons or CHILD_OF relationships made outside of imports are only picked up when a requested person is
+ * missing from the cached pedigree.
+ * Imports drop the cached pedigrees right away, and genealogy.clearPedigreeCache drops them on demand.
+ */
+class Pedigrees {
+
+    private static final AtomicLong IMPORT_GENERATION = new AtomicLong();
+
+    private static final Map<String, Pedigree> PEDIGREES = new ConcurrentHashMap<>();
+
+    /**
+     * invalidate discards the cached pedigrees, once an import wrote persons and their parents
+     */
+    public static void invalidate() {
+        IMPORT_GENERATION.incrementAndGet();
+        PEDIGREES.clear();
+    }
+
+    /**
+     * clear releases the memory held by the cached pedigrees, which are built again on next use
+     */
+    public static void clear() {
+        PEDIGREES.clear();
+    }
+
+    /**
+     * size returns the number of cached pedigrees
+     */
+    static int size() {
+        return PEDIGREES.size();
+    }
+
+    /**
+     * get returns the cached pedigree of the database, or builds it if an import ran since or if it misses one of the
+     * persons
+     */
+    public static Pedigree get(GraphDatabaseService db, Transaction tx, List<Node> persons) {
+        // read before building, so that an import completing meanwhile invalidates the new pedigree
+        long generation = IMPORT_GENERATION.get();
+        var pedigree = PEDIGREES.get(db.databaseName());
+        if (pedigree != null
+                && pedigree.generation() == generation
+                && persons.stream().allMatch(person -> pedigree.index(person) != -1)) {
+            return pedigree;
+        }
+        var rebuilt = Pedigree.build(tx, generation);
+        PEDIGREES.put(db.databaseName(), rebuilt);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.neo4j.data.importer;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+
+class PersonIndexes {
+
+    static final String NAME_SEARCH_KEYS_INDEX = "person_name_search_keys";
+
+    /**
+     * create adds the indexes backing person searches, if missing. They are populated in the background.
+     */
+    public static void create(GraphDatabaseService db) {
+        try (Transaction tx = db.beginTx()) {
+            tx.execute(String.format(
+                    """
+                    CREATE FULLTEXT INDEX %s IF NOT EXISTS
+                    FOR (p:Person) ON EACH [p.name_search_keys]
+                    OPTIONS {indexConfig: {`fulltext.analyzer`: 'standard-no-stop-words'}}
+                    """,
+                    NAME_SEARCH_KEYS_INDEX));
+            tx.commit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.neo4j.data.importer;
+
+import com.neo4j.data.importer.extractors.AttributeExtractor;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * RecordSet binds the GEDCOM records of an import phase to the extractors turning them into queries
+ */
+record RecordSet<T>(
+        ImportPhase phase,
+        List<T> records,
+        Supplier<AttributeExtractor<T>> extractors,
+        UnaryOperator<Map<String, Object>> parameters,
+        Function<Map<String, Object>, Set<String>> lockedPersonIds) {
+
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * write executes the queries of the records and returns the estimated size of their parameters
+     */
+    public long write(Transaction tx, int from, int to, Statistics statistics) {
+        long parameterBytes = 0;
+        for (T record : records.subList(from, to)) {
+            var write = prepare(record);
+            write.execute(tx, statistics);
+            parameterBytes += write.estimatedSize();
+        }
+        return parameterBytes;
+    }
+
+    public PreparedWrite prepare(T record) {
+        var extractor = extractors.get();
+        return new PreparedWrite(extractor, parameters.apply(extractor.apply(record)));
+    }
+
+    /**
+     * PreparedWrite holds the query parameters of a record, extracted ahead of its execution
+     */
+    public record PreparedWrite(AttributeExtractor<?> extractor, Map<String, Object> parameters) {
+
+        public void execute(Transaction tx, Statistics statistics) {
+            var queryStats = tx.execute(extractor.query(), parameters).getQueryStatistics();
+
+            extractor.updateCounters(queryStats, statistics);
+        }
+
+        public long estimatedSize() {
+            return ParameterSizes.estimate(parameters);
+        }
+    }
+}
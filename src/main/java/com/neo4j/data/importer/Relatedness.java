@@ -0,0 +1,18 @@
+package com.neo4j.data.importer;
+
+import org.neo4j.graphdb.Node;
+
+public class Relatedness {
+
+    public Node person1;
+    public Node person2;
+    public Double coancestry;
+    public Double relatedness;
+
+    public Relatedness(Node person1, Node person2, Double coancestry, Double relatedness) {
+        this.person1 = person1;
+        this.person2 = person2;
+        this.coancestry = coancestry;
+        this.relatedness = relatedness;
+    }
+}
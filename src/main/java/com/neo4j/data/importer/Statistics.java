@@ -4,6 +4,10 @@ public class Statistics {
 
     public Long nodesCreated = 0L;
     public Long relationshipsCreated = 0L;
+    public Long batchesCommitted = 0L;
+    public Long minBatchSize = 0L;
+    public Long maxBatchSize = 0L;
+    public Long lastBatchSize = 0L;
 
     public void addNodesCreated(int nodesCreated) {
         this.nodesCreated += nodesCreated;
@@ -12,4 +16,27 @@ public class Statistics {
     public void addRelationshipsCreated(int relationshipsCreated) {
         this.relationshipsCreated += relationshipsCreated;
     }
+
+    public void addBatch(long batchSize) {
+        this.minBatchSize = batchesCommitted == 0 ? batchSize : Math.min(minBatchSize, batchSize);
+        this.maxBatchSize = Math.max(maxBatchSize, batchSize);
+        this.lastBatchSize = batchSize;
+        this.batchesCommitted++;
+    }
+
+    public void add(Statistics statistics) {
+        this.nodesCreated += statistics.nodesCreated;
+        this.relationshipsCreated += statistics.relationshipsCreated;
+    }
+
+    public Statistics copy() {
+        var result = new Statistics();
+        result.nodesCreated = nodesCreated;
+        result.relationshipsCreated = relationshipsCreated;
+        result.batchesCommitted = batchesCommitted;
+        result.minBatchSize = minBatchSize;
+        result.maxBatchSize = maxBatchSize;
+        result.lastBatchSize = lastBatchSize;
+        return result;
+    }
 }
@@ -0,0 +1,193 @@
+package com.neo4j.data.importer.cache;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.folg.gedcom.model.ChildRef;
+import org.folg.gedcom.model.EventFact;
+import org.folg.gedcom.model.Family;
+import org.folg.gedcom.model.Gedcom;
+import org.folg.gedcom.model.Generator;
+import org.folg.gedcom.model.Header;
+import org.folg.gedcom.model.Name;
+import org.folg.gedcom.model.Person;
+import org.folg.gedcom.model.SpouseRef;
+
+/**
+ * ModelCodec encodes the parts of a GEDCOM model read by the importer: the generator name, and the names, events
+ * and facts of persons as well as the spouses, children, events and facts of families.
+ * Any change to the encoded fields must come with a new FORMAT_VERSION.
+ */
+class ModelCodec {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x47454443; // "GEDC"
+
+    public static void write(Gedcom model, DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        var header = model.getHeader();
+        var generator = header == null ? null : header.getGenerator();
+        output.writeBoolean(header != null);
+        writeString(output, generator == null ? null : generator.getName());
+
+        output.writeInt(model.getPeople().size());
+        for (Person person : model.getPeople()) {
+            writeString(output, person.getId());
+            output.writeInt(person.getNames().size());
+            for (Name name : person.getNames()) {
+                writeString(output, name.getValue());
+                writeString(output, name.getGiven());
+                writeString(output, name.getSurname());
+                writeString(output, name.getMarriedName());
+            }
+            writeEventFacts(output, person.getEventsFacts());
+        }
+
+        output.writeInt(model.getFamilies().size());
+        for (Family family : model.getFamilies()) {
+            writeString(output, family.getId());
+            writeReferences(output, family.getHusbandRefs());
+            writeReferences(output, family.getWifeRefs());
+            writeReferences(output, family.getChildRefs());
+            writeEventFacts(output, family.getEventsFacts());
+        }
+    }
+
+    public static Gedcom read(ByteBuffer input) {
+        if (input.getInt() != MAGIC || input.getInt() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a GEDCOM parse cache entry of the current format");
+        }
+        var model = new Gedcom();
+        boolean hasHeader = input.get() != 0;
+        var generatorName = readString(input);
+        if (hasHeader) {
+            var header = new Header();
+            if (generatorName != null) {
+                var generator = new Generator();
+                generator.setName(generatorName);
+                header.setGenerator(generator);
+            }
+            model.setHeader(header);
+        }
+
+        int personCount = readCount(input);
+        for (int i = 0; i < personCount; i++) {
+            var person = new Person();
+            person.setId(readString(input));
+            int nameCount = readCount(input);
+            for (int j = 0; j < nameCount; j++) {
+                var name = new Name();
+                name.setValue(readString(input));
+                name.setGiven(readString(input));
+                name.setSurname(readString(input));
+                name.setMarriedName(readString(input));
+                person.addName(name);
+            }
+            person.setEventsFacts(readEventFacts(input));
+            model.addPerson(person);
+        }
+
+        int familyCount = readCount(input);
+        for (int i = 0; i < familyCount; i++) {
+            var family = new Family();
+            family.setId(readString(input));
+            family.setHusbandRefs(readReferences(input, SpouseRef::new));
+            family.setWifeRefs(readReferences(input, SpouseRef::new));
+            family.setChildRefs(readReferences(input, ChildRef::new));
+            family.setEventsFacts(readEventFacts(input));
+            model.addFamily(family);
+        }
+        return model;
+    }
+
+    private static void writeEventFacts(DataOutputStream output, List<EventFact> facts) throws IOException {
+        output.writeInt(facts.size());
+        for (EventFact fact : facts) {
+            writeString(output, fact.getTag());
+            writeString(output, fact.getValue());
+            writeString(output, fact.getType());
+            writeString(output, fact.getDate());
+            writeString(output, fact.getPlace());
+        }
+    }
+
+    private static List<EventFact> readEventFacts(ByteBuffer input) {
+        int count = readCount(input);
+        var result = new ArrayList<EventFact>(count);
+        for (int i = 0; i < count; i++) {
+            var fact = new EventFact();
+            fact.setTag(readString(input));
+            fact.setValue(readString(input));
+            fact.setType(readString(input));
+            fact.setDate(readString(input));
+            fact.setPlace(readString(input));
+            result.add(fact);
+        }
+        return result;
+    }
+
+    private static void writeReferences(DataOutputStream output, List<? extends SpouseRef> references)
+            throws IOException {
+        output.writeInt(references.size());
+        for (SpouseRef reference : references) {
+            writeString(output, reference.getRef());
+        }
+    }
+
+    private static <T extends SpouseRef> List<T> readReferences(ByteBuffer input, Supplier<T> referenceFactory) {
+        int count = readCount(input);
+        var result = new ArrayList<T>(count);
+        for (int i = 0; i < count; i++) {
+            var reference = referenceFactory.get();
+            reference.setRef(readString(input));
+            result.add(reference);
+        }
+        return result;
+    }
+
+    /**
+     * writeString writes the UTF-8 bytes of the string, prefixed by their count (-1 for null)
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * readCount reads an element count, checking it against the remaining bytes before anything is allocated for it:
+     * every element takes 4 bytes at least
+     */
+    private static int readCount(ByteBuffer input) {
+        int count = input.getInt();
+        if (count < 0 || count > input.remaining() / Integer.BYTES) {
+            throw new IllegalArgumentException(String.format(
+                    "Corrupt GEDCOM parse cache entry: %d elements in %d bytes", count, input.remaining()));
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer input) {
+        int length = input.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < -1 || length > input.remaining()) {
+            throw new IllegalArgumentException(String.format(
+                    "Corrupt GEDCOM parse cache entry: string of %d bytes in %d bytes", length, input.remaining()));
+        }
+        var bytes = new byte[length];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
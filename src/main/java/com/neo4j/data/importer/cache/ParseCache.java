@@ -0,0 +1,105 @@
+package com.neo4j.data.importer.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import org.folg.gedcom.model.Gedcom;
+import org.folg.gedcom.parser.ModelParser;
+import org.neo4j.logging.Log;
+import org.xml.sax.SAXParseException;
+
+/**
+ * ParseCache stores parsed GEDCOM models in a compact binary form, keyed by the content hash of the GEDCOM file,
+ * the cache format version and the GEDCOM parser version.
+ * Cached models only hold what the importer reads (see ModelCodec) and are not indexed.
+ * Failing to write an entry is only logged, the parsed model is used all the same.
+ */
+public class ParseCache {
+
+    private static final String PARSER_VERSION = parserVersion();
+
+    private final Path directory;
+    private final Log logger;
+
+    public ParseCache(Path directory, Log logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    @FunctionalInterface
+    public interface ModelLoader {
+        Gedcom load() throws IOException, SAXParseException;
+    }
+
+    /**
+     * load reads the cached model of the file, or parses it with the loader and caches the result
+     */
+    public Gedcom load(String fileHash, ModelLoader loader) throws IOException, SAXParseException {
+        var entry =
+                directory.resolve(String.format("%s-v%d-%s.bin", fileHash, ModelCodec.FORMAT_VERSION, PARSER_VERSION));
+        if (Files.isRegularFile(entry)) {
+            var model = read(entry);
+            if (model != null) {
+                return model;
+            }
+        }
+        var model = loader.load();
+        try {
+            write(model, entry);
+        } catch (IOException e) {
+            logger.warn(String.format("Could not cache the parsed GEDCOM model in %s", entry), e);
+        }
+        return model;
+    }
+
+    private static Gedcom read(Path entry) throws IOException {
+        try (var channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return ModelCodec.read(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // truncated, foreign or oversized entry, parse the file again
+            return null;
+        }
+    }
+
+    private void write(Gedcom model, Path entry) throws IOException {
+        Files.createDirectories(directory);
+        // write aside then move, so that concurrent imports never read a partial entry
+        var temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                ModelCodec.write(model, output);
+            }
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private static String parserVersion() {
+        try (InputStream input = ModelParser.class.getResourceAsStream(
+                "/META-INF/maven/org.familysearch.gedcom/gedcom/pom.properties")) {
+            if (input == null) {
+                return "unknown";
+            }
+            var properties = new Properties();
+            properties.load(input);
+            return properties.getProperty("version", "unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.neo4j.data.importer.charsets;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AnselCharset decodes ANSEL (ANSI/NISO Z39.47), including the GEDCOM 5.5 extensions.
+ * Encoding is not supported, exports are always written in UTF-8.
+ */
+public final class AnselCharset extends Charset {
+
+    public static final AnselCharset INSTANCE = new AnselCharset();
+
+    private AnselCharset() {
+        super("ANSEL", new String[] {"ANSI-Z39.47", "ISO-IR-231"});
+    }
+
+    @Override
+    public boolean contains(Charset charset) {
+        return charset instanceof AnselCharset || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public CharsetDecoder newDecoder() {
+        return new AnselDecoder(this);
+    }
+
+    @Override
+    public CharsetEncoder newEncoder() {
+        throw new UnsupportedOperationException("ANSEL encoding is not supported");
+    }
+
+    @Override
+    public boolean canEncode() {
+        return false;
+    }
+}
@@ -0,0 +1,240 @@
+package com.neo4j.data.importer.charsets;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * AnselDecoder decodes ANSEL bytes through a lookup table.
+ * ANSEL combining diacritics precede their base character while Unicode ones follow it: they are held until the base
+ * character is read, then emitted after it and composed (NFC) with it when possible.
+ * At most MAX_PENDING_MARKS diacritics are held: longer runs, which only malformed files hold, are emitted as is.
+ */
+class AnselDecoder extends CharsetDecoder {
+
+    private static final char UNMAPPED = '\uFFFF';
+
+    static final int MAX_PENDING_MARKS = 8;
+
+    private static final char[] CHARACTERS = new char[256];
+
+    private static final boolean[] COMBINING = new boolean[256];
+
+    static {
+        Arrays.fill(CHARACTERS, UNMAPPED);
+        for (int i = 0; i < 0x80; i++) {
+            CHARACTERS[i] = (char) i;
+        }
+        spacing(0x88, '\u0098'); // non-sorting character sequence start
+        spacing(0x89, '\u009C'); // non-sorting character sequence end
+        spacing(0x8D, '\u200D');
+        spacing(0x8E, '\u200C');
+        spacing(0xA1, '\u0141');
+        spacing(0xA2, '\u00D8');
+        spacing(0xA3, '\u0110');
+        spacing(0xA4, '\u00DE');
+        spacing(0xA5, '\u00C6');
+        spacing(0xA6, '\u0152');
+        spacing(0xA7, '\u02B9');
+        spacing(0xA8, '\u00B7');
+        spacing(0xA9, '\u266D');
+        spacing(0xAA, '\u00AE');
+        spacing(0xAB, '\u00B1');
+        spacing(0xAC, '\u01A0');
+        spacing(0xAD, '\u01AF');
+        spacing(0xAE, '\u02BC');
+        spacing(0xB0, '\u02BB');
+        spacing(0xB1, '\u0142');
+        spacing(0xB2, '\u00F8');
+        spacing(0xB3, '\u0111');
+        spacing(0xB4, '\u00FE');
+        spacing(0xB5, '\u00E6');
+        spacing(0xB6, '\u0153');
+        spacing(0xB7, '\u02BA');
+        spacing(0xB8, '\u0131');
+        spacing(0xB9, '\u00A3');
+        spacing(0xBA, '\u00F0');
+        spacing(0xBC, '\u01A1');
+        spacing(0xBD, '\u01B0');
+        spacing(0xBE, '\u25A1'); // GEDCOM extension: empty box
+        spacing(0xBF, '\u25A0'); // GEDCOM extension: black box
+        spacing(0xC0, '\u00B0');
+        spacing(0xC1, '\u2113');
+        spacing(0xC2, '\u2117');
+        spacing(0xC3, '\u00A9');
+        spacing(0xC4, '\u266F');
+        spacing(0xC5, '\u00BF');
+        spacing(0xC6, '\u00A1');
+        spacing(0xC7, '\u00DF');
+        spacing(0xC8, '\u20AC');
+        spacing(0xCD, 'e'); // GEDCOM extension: midline e
+        spacing(0xCE, 'o'); // GEDCOM extension: midline o
+        spacing(0xCF, '\u00DF'); // GEDCOM extension: es zet
+        combining(0xE0, '\u0309');
+        combining(0xE1, '\u0300');
+        combining(0xE2, '\u0301');
+        combining(0xE3, '\u0302');
+        combining(0xE4, '\u0303');
+        combining(0xE5, '\u0304');
+        combining(0xE6, '\u0306');
+        combining(0xE7, '\u0307');
+        combining(0xE8, '\u0308');
+        combining(0xE9, '\u030C');
+        combining(0xEA, '\u030A');
+        combining(0xEB, '\uFE20');
+        combining(0xEC, '\uFE21');
+        combining(0xED, '\u0315');
+        combining(0xEE, '\u030B');
+        combining(0xEF, '\u0310');
+        combining(0xF0, '\u0327');
+        combining(0xF1, '\u0328');
+        combining(0xF2, '\u0323');
+        combining(0xF3, '\u0324');
+        combining(0xF4, '\u0325');
+        combining(0xF5, '\u0333');
+        combining(0xF6, '\u0332');
+        combining(0xF7, '\u0326');
+        combining(0xF8, '\u031C');
+        combining(0xF9, '\u032E');
+        combining(0xFA, '\uFE22');
+        combining(0xFB, '\uFE23');
+        combining(0xFE, '\u0313');
+    }
+
+    private final char[] pendingMarks = new char[MAX_PENDING_MARKS];
+
+    private int pendingMarkCount;
+
+    AnselDecoder(AnselCharset charset) {
+        // held diacritics produce no output of their own, so there are never more characters than bytes
+        super(charset, 1.0f, 1.0f);
+    }
+
+    @Override
+    protected CoderResult decodeLoop(ByteBuffer in, CharBuffer out) {
+        if (in.hasArray() && out.hasArray()) {
+            return decodeArrayLoop(in, out);
+        }
+        while (in.hasRemaining()) {
+            int b = in.get(in.position()) & 0xFF;
+            char c = CHARACTERS[b];
+            if (c == UNMAPPED) {
+                return CoderResult.unmappableForLength(1);
+            }
+            if (COMBINING[b]) {
+                if (pendingMarkCount == MAX_PENDING_MARKS && !putPendingMarks(out)) {
+                    return CoderResult.OVERFLOW;
+                }
+                holdMark(c);
+            } else if (pendingMarkCount == 0) {
+                if (!out.hasRemaining()) {
+                    return CoderResult.OVERFLOW;
+                }
+                out.put(c);
+            } else if (!putWithPendingMarks(c, out)) {
+                return CoderResult.OVERFLOW;
+            }
+            in.position(in.position() + 1);
+        }
+        return CoderResult.UNDERFLOW;
+    }
+
+    private CoderResult decodeArrayLoop(ByteBuffer in, CharBuffer out) {
+        byte[] source = in.array();
+        int sourcePosition = in.arrayOffset() + in.position();
+        int sourceLimit = in.arrayOffset() + in.limit();
+        char[] target = out.array();
+        int targetPosition = out.arrayOffset() + out.position();
+        int targetLimit = out.arrayOffset() + out.limit();
+        try {
+            while (sourcePosition < sourceLimit) {
+                int b = source[sourcePosition] & 0xFF;
+                char c = CHARACTERS[b];
+                if (c == UNMAPPED) {
+                    return CoderResult.unmappableForLength(1);
+                }
+                if (COMBINING[b]) {
+                    if (pendingMarkCount == MAX_PENDING_MARKS) {
+                        out.position(targetPosition - out.arrayOffset());
+                        if (!putPendingMarks(out)) {
+                            return CoderResult.OVERFLOW;
+                        }
+                        targetPosition = out.arrayOffset() + out.position();
+                    }
+                    holdMark(c);
+                } else if (pendingMarkCount == 0) {
+                    if (targetPosition == targetLimit) {
+                        return CoderResult.OVERFLOW;
+                    }
+                    target[targetPosition++] = c;
+                } else {
+                    out.position(targetPosition - out.arrayOffset());
+                    if (!putWithPendingMarks(c, out)) {
+                        return CoderResult.OVERFLOW;
+                    }
+                    targetPosition = out.arrayOffset() + out.position();
+                }
+                sourcePosition++;
+            }
+            return CoderResult.UNDERFLOW;
+        } finally {
+            in.position(sourcePosition - in.arrayOffset());
+            out.position(targetPosition - out.arrayOffset());
+        }
+    }
+
+    @Override
+    protected CoderResult implFlush(CharBuffer out) {
+        // diacritics at the very end of the input have no base character left
+        return putPendingMarks(out) ? CoderResult.UNDERFLOW : CoderResult.OVERFLOW;
+    }
+
+    @Override
+    protected void implReset() {
+        pendingMarkCount = 0;
+    }
+
+    private void holdMark(char mark) {
+        pendingMarks[pendingMarkCount++] = mark;
+    }
+
+    /**
+     * putPendingMarks emits the held diacritics as is, or returns false when the output has no room for them
+     */
+    private boolean putPendingMarks(CharBuffer out) {
+        if (out.remaining() < pendingMarkCount) {
+            return false;
+        }
+        out.put(pendingMarks, 0, pendingMarkCount);
+        pendingMarkCount = 0;
+        return true;
+    }
+
+    private boolean putWithPendingMarks(char base, CharBuffer out) {
+        String decoded;
+        if (base < ' ') {
+            // keep dangling diacritics on their own line rather than moving them past a line break
+            decoded = new String(pendingMarks, 0, pendingMarkCount) + base;
+        } else {
+            decoded = Normalizer.normalize(base + new String(pendingMarks, 0, pendingMarkCount), Normalizer.Form.NFC);
+        }
+        if (out.remaining() < decoded.length()) {
+            return false;
+        }
+        out.put(decoded);
+        pendingMarkCount = 0;
+        return true;
+    }
+
+    private static void spacing(int code, char character) {
+        CHARACTERS[code] = character;
+    }
+
+    private static void combining(int code, char mark) {
+        CHARACTERS[code] = mark;
+        COMBINING[code] = true;
+    }
+}
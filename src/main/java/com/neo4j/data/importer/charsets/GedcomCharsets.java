@@ -0,0 +1,123 @@
+package com.neo4j.data.importer.charsets;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * GedcomCharsets detects the encoding of GEDCOM files from their byte order mark or, failing that, from the
+ * HEAD.CHAR value of their header.
+ */
+public final class GedcomCharsets {
+
+    private static final int HEADER_BYTES = 16 * 1024;
+
+    private static final Pattern CHAR_LINE = Pattern.compile("\\s*1\\s+CHAR\\s+(.+?)\\s*");
+
+    private static final Pattern RECORD_LINE = Pattern.compile("\\s*0\\s.*");
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    private GedcomCharsets() {}
+
+    record Encoding(Charset charset, int byteOrderMarkLength) {}
+
+    /**
+     * newReader opens the file and decodes it with its detected charset, skipping any byte order mark
+     */
+    public static Reader newReader(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            var header = ByteBuffer.allocate((int) Math.min(HEADER_BYTES, channel.size()));
+            while (header.hasRemaining() && channel.read(header) >= 0) {}
+            var encoding = detect(header.flip());
+            channel.position(encoding.byteOrderMarkLength());
+            var decoder = encoding.charset()
+                    .newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            return Channels.newReader(channel, decoder, -1);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * detect determines the encoding of the given leading bytes of a GEDCOM file
+     */
+    static Encoding detect(ByteBuffer header) {
+        int length = header.remaining();
+        int first = length > 0 ? header.get(0) & 0xFF : -1;
+        int second = length > 1 ? header.get(1) & 0xFF : -1;
+        if (length > 2 && first == 0xEF && second == 0xBB && (header.get(2) & 0xFF) == 0xBF) {
+            return new Encoding(StandardCharsets.UTF_8, 3);
+        }
+        if (first == 0xFE && second == 0xFF) {
+            return new Encoding(StandardCharsets.UTF_16BE, 2);
+        }
+        if (first == 0xFF && second == 0xFE) {
+            return new Encoding(StandardCharsets.UTF_16LE, 2);
+        }
+        // without byte order mark, UTF-16 shows as zero bytes around the leading ASCII "0 HEAD"
+        if (first == 0 && second > 0) {
+            return new Encoding(StandardCharsets.UTF_16BE, 0);
+        }
+        if (first > 0 && second == 0) {
+            return new Encoding(StandardCharsets.UTF_16LE, 0);
+        }
+        return new Encoding(declaredCharset(header), 0);
+    }
+
+    private static Charset declaredCharset(ByteBuffer header) {
+        // all declarable charsets are ASCII-compatible, so the header lines can be read byte per character
+        var lines = StandardCharsets.ISO_8859_1
+                .decode(header.duplicate())
+                .toString()
+                .split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0 && RECORD_LINE.matcher(lines[i]).matches()) {
+                break;
+            }
+            var charLine = CHAR_LINE.matcher(lines[i]);
+            if (charLine.matches()) {
+                return charsetNamed(charLine.group(1));
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * charsetNamed maps HEAD.CHAR values to charsets.
+     * UNICODE files are recognized by their zero bytes before reaching this point, so 8-bit ones are actually UTF-8.
+     * Files labelled ASCII or ANSI commonly hold Windows-1252 characters, which is a superset of ASCII.
+     */
+    private static Charset charsetNamed(String name) {
+        return switch (name.toUpperCase(Locale.ROOT).replaceAll("[\\s_-]", "")) {
+            case "ANSEL" -> AnselCharset.INSTANCE;
+            case "UTF8", "UNICODE", "UTF16" -> StandardCharsets.UTF_8;
+            case "ASCII", "ANSI", "WINDOWS", "IBMWINDOWS", "WINDOWS1252", "CP1252" -> WINDOWS_1252;
+            case "LATIN1", "ISO88591" -> StandardCharsets.ISO_8859_1;
+            case "MACINTOSH", "MACROMAN" -> supportedOrDefault("x-MacRoman");
+            case "IBMPC", "IBMDOS" -> supportedOrDefault("IBM437");
+            default -> supportedOrDefault(name);
+        };
+    }
+
+    private static Charset supportedOrDefault(String name) {
+        try {
+            return Charset.isSupported(name) ? Charset.forName(name) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
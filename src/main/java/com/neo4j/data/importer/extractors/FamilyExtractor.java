@@ -2,8 +2,10 @@ package com.neo4j.data.importer.extractors;
 
 import com.neo4j.data.importer.Statistics;
 import com.neo4j.data.importer.extractors.Lists.Pair;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.folg.gedcom.model.Family;
 import org.neo4j.graphdb.QueryStatistics;
 
@@ -48,6 +50,20 @@ public interface FamilyExtractor extends AttributeExtractor<Family> {
         return Map.of("spouseIdPairs", spouseInfo, "childIds", childReferences(family));
     }
 
+    /**
+     * personIds returns the ids of the persons linked by the relationships created from the parameters returned by apply
+     */
+    @SuppressWarnings("unchecked")
+    static Set<String> personIds(Map<String, Object> parameters) {
+        var result = new HashSet<String>();
+        for (var spouseInfo : (List<Map<String, Object>>) parameters.get("spouseIdPairs")) {
+            result.add((String) spouseInfo.get("id1"));
+            result.add((String) spouseInfo.get("id2"));
+        }
+        result.addAll((List<String>) parameters.get("childIds"));
+        return result;
+    }
+
     default void updateCounters(QueryStatistics results, Statistics counters) {
         counters.addRelationshipsCreated(results.getRelationshipsCreated());
     }
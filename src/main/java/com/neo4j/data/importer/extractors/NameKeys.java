@@ -0,0 +1,89 @@
+package com.neo4j.data.importer.extractors;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.codec.language.DaitchMokotoffSoundex;
+import org.apache.commons.codec.language.Soundex;
+
+/**
+ * NameKeys derives the keys names are searched by: accent-folded, lower-cased words and, for surnames, their Soundex
+ * and Daitch-Mokotoff codes
+ */
+public class NameKeys {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final DaitchMokotoffSoundex DAITCH_MOKOTOFF = new DaitchMokotoffSoundex();
+
+    public static List<String> normalize(List<String> names) {
+        return words(names).toList();
+    }
+
+    public static List<String> soundex(List<String> names) {
+        return words(names)
+                .map(NameKeys::soundex)
+                .filter(code -> !code.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    public static List<String> daitchMokotoff(List<String> names) {
+        return words(names).flatMap(NameKeys::daitchMokotoff).distinct().toList();
+    }
+
+    /**
+     * searchKeys joins all keys of a person in a single text, meant to be full-text indexed
+     */
+    public static String searchKeys(List<String> firstNames, List<String> surnames) {
+        return Stream.of(normalize(firstNames), normalize(surnames), soundex(surnames), daitchMokotoff(surnames))
+                .flatMap(List::stream)
+                .distinct()
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * searchTerms returns the keys each word of the searched name may be indexed under
+     */
+    public static Set<String> searchTerms(String name) {
+        var names = List.of(name);
+        var result = new LinkedHashSet<String>();
+        result.addAll(normalize(names));
+        result.addAll(soundex(names));
+        result.addAll(daitchMokotoff(names));
+        return result;
+    }
+
+    private static Stream<String> words(List<String> names) {
+        return names.stream()
+                .map(NameKeys::fold)
+                .flatMap(WORD_SEPARATORS::splitAsStream)
+                .filter(word -> !word.isEmpty());
+    }
+
+    private static String fold(String name) {
+        var decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String soundex(String word) {
+        try {
+            return Soundex.US_ENGLISH.encode(word);
+        } catch (IllegalArgumentException e) {
+            // letters without Latin decomposition (e.g. ø, ß) have no Soundex mapping
+            return "";
+        }
+    }
+
+    private static Stream<String> daitchMokotoff(String word) {
+        return Arrays.stream(DAITCH_MOKOTOFF.soundex(word).split("\\|")).filter(code -> !code.isEmpty());
+    }
+}
@@ -31,8 +31,15 @@ interface PersonExtractor extends AttributeExtractor<Person> {
     default Map<String, Object> apply(Person person) {
         Map<String, Object> attributes = new HashMap<>(facts(person));
         attributes.put("id", id(person));
-        attributes.put("first_names", firstNames(person));
-        attributes.put("last_names", surnames(person));
+        var firstNames = firstNames(person);
+        var surnames = surnames(person);
+        attributes.put("first_names", firstNames);
+        attributes.put("last_names", surnames);
+        attributes.put("first_names_normalized", NameKeys.normalize(firstNames));
+        attributes.put("last_names_normalized", NameKeys.normalize(surnames));
+        attributes.put("last_names_soundex", NameKeys.soundex(surnames));
+        attributes.put("last_names_daitch_mokotoff", NameKeys.daitchMokotoff(surnames));
+        attributes.put("name_search_keys", NameKeys.searchKeys(firstNames, surnames));
         gender(person).ifPresent(gender -> attributes.put("gender", gender));
         preferredFirstName(person).ifPresent(gender -> attributes.put("preferred_first_name", gender));
         return attributes;
@@ -0,0 +1,46 @@
+package com.neo4j.data.importer.writers;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.folg.gedcom.model.EventFact;
+
+class EventTags {
+
+    private static final String GENERIC_EVENT_TAG = "EVEN";
+
+    private static final Map<String, String> TAGS_BY_DISPLAY_TYPE = tagsByDisplayType();
+
+    /**
+     * tagOf maps the lower-cased display type used as person property prefix back to its GEDCOM tag
+     */
+    public static String tagOf(String displayType) {
+        return TAGS_BY_DISPLAY_TYPE.getOrDefault(displayType, GENERIC_EVENT_TAG);
+    }
+
+    private static Map<String, String> tagsByDisplayType() {
+        var result = new HashMap<String, String>();
+        new TreeMap<>(EventFact.DISPLAY_TYPE).forEach((tag, displayKey) -> {
+            var fact = new EventFact();
+            fact.setTag(tag);
+            result.putIfAbsent(
+                    fact.getDisplayType().toLowerCase(Locale.ROOT),
+                    canonicalTag(displayKey.toUpperCase(Locale.ROOT), tag));
+        });
+        return result;
+    }
+
+    /**
+     * canonicalTag picks the tag named after the display key when several tags share it (e.g. BIRT over BIRTH)
+     */
+    private static String canonicalTag(String displayKey, String fallback) {
+        if (EventFact.DISPLAY_TYPE.containsKey(displayKey)) {
+            return displayKey;
+        }
+        if (EventFact.DISPLAY_TYPE.containsKey("_" + displayKey)) {
+            return "_" + displayKey;
+        }
+        return fallback;
+    }
+}
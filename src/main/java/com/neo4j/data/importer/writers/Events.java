@@ -0,0 +1,23 @@
+package com.neo4j.data.importer.writers;
+
+import java.util.Map;
+
+class Events {
+
+    /**
+     * write emits an event and its details, read from the properties written by EventFacts for the given key qualifier
+     */
+    public static void write(
+            GedcomWriter writer, int level, String tag, Map<String, Object> properties, String keyQualifier) {
+        writer.line(level, tag);
+        writeDetail(writer, level + 1, "TYPE", properties.get(String.format("%stype", keyQualifier)));
+        writeDetail(writer, level + 1, "DATE", properties.get(String.format("raw_%sdate", keyQualifier)));
+        writeDetail(writer, level + 1, "PLAC", properties.get(String.format("%slocation", keyQualifier)));
+    }
+
+    private static void writeDetail(GedcomWriter writer, int level, String tag, Object value) {
+        if (value != null) {
+            writer.line(level, tag, value.toString());
+        }
+    }
+}
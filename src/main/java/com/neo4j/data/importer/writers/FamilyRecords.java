@@ -0,0 +1,90 @@
+package com.neo4j.data.importer.writers;
+
+import static com.neo4j.data.importer.writers.GraphModel.CHILD_OF;
+import static com.neo4j.data.importer.writers.GraphModel.DIVORCED;
+import static com.neo4j.data.importer.writers.GraphModel.MARRIED_TO;
+import static com.neo4j.data.importer.writers.GraphModel.SPOUSE_OF;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+
+public class FamilyRecords {
+
+    /**
+     * writeAll streams every couple linked by SPOUSE_OF as a FAM record and returns the number of written records
+     */
+    public static long writeAll(Transaction tx, GedcomWriter writer) {
+        long count = 0;
+        try (var spouseRelationships = tx.findRelationships(SPOUSE_OF)) {
+            while (spouseRelationships.hasNext()) {
+                var relationship = spouseRelationships.next();
+                if (isFirstOfCouple(relationship)) {
+                    write(relationship.getStartNode(), relationship.getEndNode(), writer);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void write(Node spouse1, Node spouse2, GedcomWriter writer) {
+        writer.record(GraphModel.familyId(spouse1, spouse2), "FAM");
+        writer.pointer(1, "HUSB", GraphModel.personId(spouse1));
+        writer.pointer(1, "WIFE", GraphModel.personId(spouse2));
+        for (String childId : childIds(spouse1, spouse2)) {
+            writer.pointer(1, "CHIL", childId);
+        }
+        writeEvents(spouse1, spouse2, MARRIED_TO, "MARR", writer);
+        writeEvents(spouse1, spouse2, DIVORCED, "DIV", writer);
+    }
+
+    /**
+     * isFirstOfCouple elects a single SPOUSE_OF relationship per couple, so that a couple yields one FAM record
+     */
+    private static boolean isFirstOfCouple(Relationship relationship) {
+        var spouse2 = relationship.getEndNode();
+        try (var relationships = relationship.getStartNode().getRelationships(Direction.OUTGOING, SPOUSE_OF)) {
+            return relationships.stream()
+                    .filter(candidate -> candidate.getEndNode().equals(spouse2))
+                    .findFirst()
+                    .map(relationship::equals)
+                    .orElse(false);
+        }
+    }
+
+    private static Set<String> childIds(Node spouse1, Node spouse2) {
+        var result = new LinkedHashSet<String>();
+        try (var relationships = spouse1.getRelationships(Direction.INCOMING, CHILD_OF)) {
+            for (var relationship : relationships) {
+                var child = relationship.getStartNode();
+                if (isChildOf(child, spouse2)) {
+                    result.add(GraphModel.personId(child));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isChildOf(Node child, Node parent) {
+        try (var relationships = child.getRelationships(Direction.OUTGOING, CHILD_OF)) {
+            return relationships.stream()
+                    .anyMatch(relationship -> relationship.getEndNode().equals(parent));
+        }
+    }
+
+    private static void writeEvents(
+            Node spouse1, Node spouse2, RelationshipType type, String tag, GedcomWriter writer) {
+        try (var relationships = spouse1.getRelationships(Direction.OUTGOING, type)) {
+            for (var relationship : relationships) {
+                if (relationship.getEndNode().equals(spouse2)) {
+                    Events.write(writer, 1, tag, relationship.getAllProperties(), "");
+                }
+            }
+        }
+    }
+}
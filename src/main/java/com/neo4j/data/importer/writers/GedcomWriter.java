@@ -0,0 +1,75 @@
+package com.neo4j.data.importer.writers;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class GedcomWriter implements Closeable {
+
+    private final BufferedWriter writer;
+
+    /**
+     * GedcomWriter creates the file, failing if it already exists unless overwrite is set
+     */
+    public GedcomWriter(Path path, boolean overwrite) throws IOException {
+        this.writer = overwrite
+                ? Files.newBufferedWriter(path, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+    }
+
+    public void writeHeader() {
+        line(0, "HEAD");
+        line(1, "SOUR", "neo4j-gedcom");
+        line(2, "NAME", "neo4j-gedcom");
+        line(1, "GEDC");
+        line(2, "VERS", "5.5");
+        line(2, "FORM", "LINEAGE-LINKED");
+        line(1, "CHAR", "UTF-8");
+    }
+
+    public void writeTrailer() {
+        line(0, "TRLR");
+    }
+
+    void record(String id, String tag) {
+        write(String.format("0 @%s@ %s", id, tag));
+    }
+
+    void line(int level, String tag) {
+        write(String.format("%d %s", level, tag));
+    }
+
+    /**
+     * line writes a tag and its value, spreading multi-line values over CONT lines
+     */
+    void line(int level, String tag, String value) {
+        var lines = value.split("\\R", -1);
+        write(String.format("%d %s %s", level, tag, lines[0]));
+        for (int i = 1; i < lines.length; i++) {
+            write(String.format("%d CONT %s", level + 1, lines[i]));
+        }
+    }
+
+    void pointer(int level, String tag, String id) {
+        line(level, tag, String.format("@%s@", id));
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void write(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
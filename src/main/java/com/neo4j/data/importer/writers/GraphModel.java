@@ -0,0 +1,25 @@
+package com.neo4j.data.importer.writers;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+
+class GraphModel {
+
+    static final Label PERSON = Label.label("Person");
+    static final RelationshipType SPOUSE_OF = RelationshipType.withName("SPOUSE_OF");
+    static final RelationshipType MARRIED_TO = RelationshipType.withName("MARRIED_TO");
+    static final RelationshipType DIVORCED = RelationshipType.withName("DIVORCED");
+    static final RelationshipType CHILD_OF = RelationshipType.withName("CHILD_OF");
+
+    public static String personId(Node person) {
+        return (String) person.getProperty("id");
+    }
+
+    /**
+     * familyId derives a stable FAM identifier from the couple, since families are not stored as nodes
+     */
+    public static String familyId(Node spouse1, Node spouse2) {
+        return String.format("F_%s_%s", personId(spouse1), personId(spouse2));
+    }
+}
@@ -0,0 +1,144 @@
+package com.neo4j.data.importer.writers;
+
+import static com.neo4j.data.importer.writers.GraphModel.CHILD_OF;
+import static com.neo4j.data.importer.writers.GraphModel.PERSON;
+import static com.neo4j.data.importer.writers.GraphModel.SPOUSE_OF;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+public class PersonRecords {
+
+    private static final String SEX_DISPLAY_TYPE = "sex";
+
+    /**
+     * writeAll streams every person as an INDI record and returns the number of written records
+     */
+    public static long writeAll(Transaction tx, GedcomWriter writer) {
+        long count = 0;
+        try (var persons = tx.findNodes(PERSON)) {
+            while (persons.hasNext()) {
+                write(persons.next(), writer);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void write(Node person, GedcomWriter writer) {
+        var properties = person.getAllProperties();
+        writer.record(GraphModel.personId(person), "INDI");
+        writeName(properties, writer);
+        var gender = properties.get("gender");
+        if (gender != null) {
+            writer.line(1, "SEX", gender.toString());
+        }
+        for (String displayType : eventDisplayTypes(properties)) {
+            if (gender != null && SEX_DISPLAY_TYPE.equals(displayType)) {
+                continue;
+            }
+            Events.write(writer, 1, EventTags.tagOf(displayType), properties, String.format("%s_", displayType));
+        }
+        for (String familyId : spouseFamilyIds(person)) {
+            writer.pointer(1, "FAMS", familyId);
+        }
+        for (String familyId : childFamilyIds(person)) {
+            writer.pointer(1, "FAMC", familyId);
+        }
+    }
+
+    private static void writeName(Map<String, Object> properties, GedcomWriter writer) {
+        var givenNames = names(properties.get("first_names"));
+        var preferredName = properties.get("preferred_first_name");
+        if (preferredName != null) {
+            // restores the Heredis quoting convention of preferred first names
+            int index = givenNames.indexOf(preferredName.toString());
+            if (index >= 0) {
+                givenNames.set(index, String.format("\"%s\"", givenNames.get(index)));
+            }
+        }
+        var given = String.join(", ", givenNames);
+        var surname = String.join(", ", names(properties.get("last_names")));
+        if (given.isEmpty() && surname.isEmpty()) {
+            return;
+        }
+        writer.line(
+                1,
+                "NAME",
+                surname.isEmpty()
+                        ? given
+                        : String.format("%s /%s/", given, surname).trim());
+        if (!given.isEmpty()) {
+            writer.line(2, "GIVN", given);
+        }
+        if (!surname.isEmpty()) {
+            writer.line(2, "SURN", surname);
+        }
+    }
+
+    private static List<String> names(Object names) {
+        if (names instanceof String[] values) {
+            return new ArrayList<>(Arrays.asList(values));
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * eventDisplayTypes finds the event prefixes of the flat properties written by EventFacts.extractFlat
+     */
+    private static Set<String> eventDisplayTypes(Map<String, Object> properties) {
+        var result = new TreeSet<String>();
+        for (String key : properties.keySet()) {
+            if (key.startsWith("raw_") && key.endsWith("_date")) {
+                result.add(key.substring("raw_".length(), key.length() - "_date".length()));
+            } else if (key.endsWith("_location")) {
+                result.add(key.substring(0, key.length() - "_location".length()));
+            } else if (key.endsWith("_type")) {
+                result.add(key.substring(0, key.length() - "_type".length()));
+            }
+        }
+        result.remove("");
+        return result;
+    }
+
+    private static Set<String> spouseFamilyIds(Node person) {
+        var result = new LinkedHashSet<String>();
+        try (var relationships = person.getRelationships(SPOUSE_OF)) {
+            for (var relationship : relationships) {
+                var spouse1 = relationship.getStartNode();
+                var spouse2 = relationship.getEndNode();
+                result.add(GraphModel.familyId(spouse1, spouse2));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> childFamilyIds(Node person) {
+        var parents = new LinkedHashSet<Node>();
+        try (var relationships = person.getRelationships(Direction.OUTGOING, CHILD_OF)) {
+            for (var relationship : relationships) {
+                parents.add(relationship.getEndNode());
+            }
+        }
+        var result = new LinkedHashSet<String>();
+        for (Node parent : parents) {
+            try (var relationships = parent.getRelationships(Direction.OUTGOING, SPOUSE_OF)) {
+                for (var relationship : relationships) {
+                    var spouse = relationship.getEndNode();
+                    if (parents.contains(spouse)) {
+                        result.add(GraphModel.familyId(parent, spouse));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BatchSizeControllerTest {
+
+    private static final ImportOptions OPTIONS = ImportOptions.from(Map.of(
+            "adaptiveBatchSize", true,
+            "batchSize", 100,
+            "minBatchSize", 10,
+            "maxBatchSize", 1000,
+            "targetBatchMillis", 100));
+
+    @Test
+    void grows_batches_written_faster_than_target() {
+        var controller = new BatchSizeController(OPTIONS, () -> 0.1);
+
+        controller.batchWritten(100, millis(10), 1000);
+        assertThat(controller.batchSize()).isEqualTo(200);
+        controller.batchWritten(200, millis(100), 2000);
+        assertThat(controller.batchSize()).isEqualTo(200);
+    }
+
+    @Test
+    void shrinks_batches_written_slower_than_target() {
+        var controller = new BatchSizeController(OPTIONS, () -> 0.1);
+
+        controller.batchWritten(100, millis(1000), 1000);
+        assertThat(controller.batchSize()).isEqualTo(50);
+        controller.batchWritten(50, millis(80), 500);
+        assertThat(controller.batchSize()).isEqualTo(62);
+    }
+
+    @Test
+    void stays_within_bounds() {
+        var controller = new BatchSizeController(OPTIONS, () -> 0.1);
+
+        for (int i = 0; i < 10; i++) {
+            controller.batchWritten((int) controller.batchSize(), millis(1), 1000);
+        }
+        assertThat(controller.batchSize()).isEqualTo(1000);
+        for (int i = 0; i < 10; i++) {
+            controller.batchWritten((int) controller.batchSize(), millis(10_000), 1000);
+        }
+        assertThat(controller.batchSize()).isEqualTo(10);
+    }
+
+    @Test
+    void halves_batches_under_heap_pressure() {
+        var controller = new BatchSizeController(OPTIONS, () -> 0.9);
+
+        controller.batchWritten(100, millis(10), 1000);
+
+        assertThat(controller.batchSize()).isEqualTo(50);
+    }
+
+    @Test
+    void caps_batch_parameter_size() {
+        var controller = new BatchSizeController(OPTIONS, () -> 0.1);
+
+        controller.batchWritten(100, millis(10), 100L * 1024 * 1024);
+
+        assertThat(controller.batchSize()).isEqualTo(64);
+    }
+
+    @Test
+    void keeps_fixed_size_when_not_adaptive() {
+        var controller = new BatchSizeController(ImportOptions.from(Map.of("batchSize", 100)), () -> 0.9);
+
+        controller.batchWritten(100, millis(10_000), 1000);
+
+        assertThat(controller.batchSize()).isEqualTo(100);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
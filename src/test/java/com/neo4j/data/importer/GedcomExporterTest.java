@@ -0,0 +1,225 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GedcomExporterTest {
+    private static final String EXPORT_FILE = "exported.ged";
+
+    private Neo4j neo4j;
+
+    private Path importRoot;
+
+    @BeforeAll
+    void initializeNeo4j() throws Exception {
+        this.importRoot = pathOfResource("ged-files");
+        this.neo4j = Neo4jBuilders.newInProcessBuilder()
+                .withDisabledServer()
+                .withProcedure(GedcomImporter.class)
+                .withProcedure(GedcomExporter.class)
+                .withConfig(GraphDatabaseSettings.procedure_unrestricted, List.of("*"))
+                .withConfig(GraphDatabaseSettings.load_csv_file_url_root, importRoot)
+                .build();
+    }
+
+    @AfterAll
+    void closeNeo4j() {
+        this.neo4j.close();
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+        }
+        Files.deleteIfExists(importRoot.resolve(EXPORT_FILE));
+    }
+
+    @Test
+    void exports_persons_and_families() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "SimpsonsCartoon.ged");
+
+            var statistics = exportGedcom(driver, EXPORT_FILE).records().get(0);
+
+            assertThat(statistics.get("personsExported").asLong()).isEqualTo(11);
+            assertThat(statistics.get("familiesExported").asLong()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void round_trips_persons_and_relationships() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "SimpsonsCartoon.ged");
+            var expectedPersons = persons(driver);
+            var expectedRelationships = relationships(driver);
+            exportGedcom(driver, EXPORT_FILE);
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+
+            var statistics = loadGedcom(driver, EXPORT_FILE).records().get(0);
+
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(statistics.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(persons(driver)).containsExactlyInAnyOrderElementsOf(expectedPersons);
+            assertThat(relationships(driver)).containsExactlyInAnyOrderElementsOf(expectedRelationships);
+        }
+    }
+
+    @Test
+    void round_trips_person_events() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "555Sample.ged");
+            var expectedBirths = births(driver);
+            exportGedcom(driver, EXPORT_FILE);
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+
+            loadGedcom(driver, EXPORT_FILE);
+
+            assertThat(births(driver)).isNotEmpty().containsExactlyInAnyOrderElementsOf(expectedBirths);
+        }
+    }
+
+    @Test
+    void round_trips_marriages_and_divorces() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "DetailedMarriageDivorceInfo.ged");
+            exportGedcom(driver, EXPORT_FILE);
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+
+            loadGedcom(driver, EXPORT_FILE);
+
+            var events = driver
+                    .executableQuery(
+                            """
+                            MATCH (john:Person {first_names: ["John"], last_names: ["DOE"]}),
+                                  (jane:Person {first_names: ["Jane"], last_names: ["DOE"]}),
+                                  (john)-[r:MARRIED_TO|DIVORCED]->(jane)
+                            RETURN r
+                            """)
+                    .execute(Collectors.toList())
+                    .stream()
+                    .map(record -> record.get("r").asRelationship().asMap())
+                    .toList();
+
+            assertThat(events)
+                    .containsExactlyInAnyOrder(
+                            Map.of(
+                                    "type", "Religious marriage",
+                                    "date", LocalDate.of(1989, 3, 2),
+                                    "raw_date", "2 MAR 1989",
+                                    "location", "Colmar,68000,Haut Rhin,Alsace,FRANCE,"),
+                            Map.of(
+                                    "date", LocalDate.of(1989, 3, 1),
+                                    "raw_date", "1 MAR 1989",
+                                    "location", "Colmar,68000,Haut Rhin,Alsace,FRANCE,"),
+                            Map.of(
+                                    "date", LocalDate.of(2017, 10, 23),
+                                    "raw_date", "23 OCT 2017",
+                                    "location", "Strasbourg,67000,Bas Rhin,Alsace,FRANCE,"));
+        }
+    }
+
+    @Test
+    void rejects_files_outside_of_import_directory() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThatThrownBy(() -> exportGedcom(driver, "../x.ged"))
+                    .hasMessageContaining("File must be located in the import directory");
+            assertThat(importRoot.resolveSibling("x.ged")).doesNotExist();
+        }
+    }
+
+    @Test
+    void refuses_to_overwrite_existing_files() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "SimpsonsCartoon.ged");
+            var source = importRoot.resolve("SimpsonsCartoon.ged");
+            var sourceContent = Files.readAllBytes(source);
+
+            assertThatThrownBy(() -> exportGedcom(driver, "SimpsonsCartoon.ged"))
+                    .hasMessageContaining("already exists");
+            assertThat(Files.readAllBytes(source)).isEqualTo(sourceContent);
+        }
+    }
+
+    @Test
+    void overwrites_existing_files_on_request() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "SimpsonsCartoon.ged");
+            Files.writeString(importRoot.resolve(EXPORT_FILE), "stale");
+
+            driver.executableQuery("CALL genealogy.exportGedcom($fileName, {overwrite: true})")
+                    .withParameters(Map.of("fileName", EXPORT_FILE))
+                    .execute();
+
+            assertThat(Files.readString(importRoot.resolve(EXPORT_FILE))).startsWith("0 HEAD");
+        }
+    }
+
+    private static EagerResult loadGedcom(Driver driver, String fileName) {
+        return driver.executableQuery(
+                        "CALL genealogy.loadGedcom($fileName) yield nodesCreated, relationshipsCreated return *")
+                .withParameters(Map.of("fileName", fileName))
+                .execute();
+    }
+
+    private static EagerResult exportGedcom(Driver driver, String fileName) {
+        return driver.executableQuery(
+                        "CALL genealogy.exportGedcom($fileName) yield personsExported, familiesExported return *")
+                .withParameters(Map.of("fileName", fileName))
+                .execute();
+    }
+
+    private static List<Map<String, Object>> persons(Driver driver) {
+        return driver
+                .executableQuery(
+                        "MATCH (p:Person) RETURN p.id AS id, p.first_names AS first, p.last_names AS last, p.gender AS gender")
+                .execute(Collectors.toList())
+                .stream()
+                .map(Record::asMap)
+                .toList();
+    }
+
+    private static List<Map<String, Object>> relationships(Driver driver) {
+        return driver
+                .executableQuery("MATCH (i:Person)-[r]->(j:Person) RETURN i.id AS from, type(r) AS type, j.id AS to")
+                .execute(Collectors.toList())
+                .stream()
+                .map(Record::asMap)
+                .toList();
+    }
+
+    private static List<Map<String, Object>> births(Driver driver) {
+        return driver
+                .executableQuery(
+                        "MATCH (p:Person) WHERE p.raw_birth_date IS NOT NULL RETURN p.id AS id, p.raw_birth_date AS date, p.birth_location AS location")
+                .execute(Collectors.toList())
+                .stream()
+                .map(Record::asMap)
+                .toList();
+    }
+
+    private static Path pathOfResource(String classpathResource) throws Exception {
+        return Path.of(Thread.currentThread()
+                .getContextClassLoader()
+                .getResource(classpathResource)
+                .toURI());
+    }
+}
@@ -1,11 +1,18 @@
 package com.neo4j.data.importer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -52,6 +59,13 @@ class GedcomImporterTest {
                 .execute();
     }
 
+    private EagerResult loadGedcom(Driver driver, String fileName, Map<String, Object> config) {
+        return driver.executableQuery(
+                        "CALL genealogy.loadGedcom($fileName, $config) yield nodesCreated, relationshipsCreated return *")
+                .withParameters(Map.of("fileName", fileName, "config", config))
+                .execute();
+    }
+
     @Test
     void loads_individuals() {
         try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
@@ -288,6 +302,437 @@ class GedcomImporterTest {
         ;
     }
 
+    @Test
+    void decodes_ansel_files() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "AnselEncoding.ged");
+
+            assertThat(loadPersons(driver))
+                    .containsExactlyInAnyOrder(
+                            new Person(List.of("Lech"), List.of("Wałęsa"), "M"),
+                            new Person(List.of("Renée"), List.of("Müller"), "F"));
+        }
+    }
+
+    @Test
+    void decodes_utf16_files() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "Utf16Encoding.ged");
+
+            assertThat(loadPersons(driver))
+                    .containsExactlyInAnyOrder(
+                            new Person(List.of("Łukasz"), List.of("Żółw"), "M"),
+                            new Person(List.of("Zoë"), List.of("Brontë"), "F"));
+        }
+    }
+
+    @Test
+    void decodes_windows_1252_files() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "AnsiEncoding.ged");
+
+            assertThat(loadPersons(driver))
+                    .containsExactlyInAnyOrder(
+                            new Person(List.of("Jérôme"), List.of("Dupré"), "M"),
+                            new Person(List.of("Françoise"), List.of("Œillet"), "F"));
+        }
+    }
+
+    @Test
+    void loads_in_resumable_batches() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var statistics = loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true, "batchSize", 2))
+                    .records()
+                    .get(0);
+
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(statistics.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(countCheckpoints(driver)).isZero();
+        }
+    }
+
+    @Test
+    void grows_adaptive_batch_size_up_to_bound() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var statistics = driver.executableQuery(
+                            "CALL genealogy.loadGedcom($fileName, $config) YIELD nodesCreated, relationshipsCreated, batchesCommitted, minBatchSize, maxBatchSize RETURN *")
+                    .withParameters(Map.of(
+                            "fileName",
+                            "SimpsonsCartoon.ged",
+                            "config",
+                            Map.of(
+                                    "adaptiveBatchSize", true,
+                                    "batchSize", 2,
+                                    "minBatchSize", 1,
+                                    "maxBatchSize", 4,
+                                    "targetBatchMillis", 60_000)))
+                    .execute()
+                    .records()
+                    .get(0);
+
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(statistics.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(statistics.get("batchesCommitted").asLong()).isBetween(4L, 14L);
+            // batches of the small file are written well within the target duration, so that their size doubles
+            assertThat(statistics.get("minBatchSize").asLong()).isEqualTo(2);
+            assertThat(statistics.get("maxBatchSize").asLong()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void resumes_import_from_checkpoint() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true));
+            driver.executableQuery("MATCH ()-[r]->() DELETE r").execute();
+            createCheckpoint(driver, "SimpsonsCartoon.ged", sha256("SimpsonsCartoon.ged"), "FAMILIES");
+
+            var statistics = loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true, "batchSize", 1))
+                    .records()
+                    .get(0);
+
+            assertThat(statistics.get("nodesCreated").asLong()).isZero();
+            assertThat(statistics.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(countCheckpoints(driver)).isZero();
+        }
+    }
+
+    @Test
+    void rejects_import_when_file_changed_since_checkpoint() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            createCheckpoint(driver, "SimpsonsCartoon.ged", "outdated-hash", "FAMILIES");
+
+            assertThatThrownBy(() -> loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true)))
+                    .hasMessageContaining("Found a stale :GedcomImportCheckpoint node for SimpsonsCartoon.ged");
+            assertThat(countPersons(driver)).isZero();
+            assertThat(countCheckpoints(driver)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void rejects_resumable_import_while_another_one_runs() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var running = ImportCheckpoint.resume(
+                    neo4j.defaultDatabaseService(), "SimpsonsCartoon.ged", sha256("SimpsonsCartoon.ged"));
+            try {
+                assertThatThrownBy(() -> loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true)))
+                        .hasMessageContaining("A resumable import of SimpsonsCartoon.ged is already running");
+                assertThat(countPersons(driver)).isZero();
+            } finally {
+                running.close();
+            }
+
+            loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true));
+
+            assertThat(countPersons(driver)).isEqualTo(11);
+        }
+    }
+
+    @Test
+    void loads_families_with_parallel_writers() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var statistics = loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("familyWriters", 4))
+                    .records()
+                    .get(0);
+
+            var relationships = driver
+                    .executableQuery("MATCH (i:Person)-[r]->(j:Person) return r, i, j")
+                    .execute(Collectors.toList())
+                    .stream()
+                    .map(GedcomImporterTest::asRelationships)
+                    .toList();
+
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(statistics.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(relationships)
+                    .hasSize(17)
+                    .filteredOn(r -> r.type().equals("CHILD_OF"))
+                    .hasSize(14);
+        }
+    }
+
+    @Test
+    void loads_families_in_batches_with_parallel_writers() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var jobId = loadGedcomAsync(driver, "REMARR.ged", Map.of("familyWriters", 2, "batchSize", 2));
+
+            var status = awaitImport(driver, jobId);
+
+            var spouses = driver.executableQuery("MATCH (:Person)-[r:SPOUSE_OF]->(:Person) RETURN count(r) AS count")
+                    .execute()
+                    .records()
+                    .get(0)
+                    .get("count")
+                    .asLong();
+            assertThat(status.get("state").asString()).isEqualTo("COMPLETED");
+            assertThat(spouses).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void rejects_parallel_writers_for_resumable_import() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThatThrownBy(() ->
+                            loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("resumable", true, "familyWriters", 2)))
+                    .hasMessageContaining("familyWriters cannot be greater than 1 for resumable imports");
+        }
+    }
+
+    @Test
+    void caches_parsed_models() throws Exception {
+        var cacheDirectory = pathOfResource("ged-files").resolveSibling("gedcom-cache");
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var config = Map.<String, Object>of("parseCache", true);
+            loadGedcom(driver, "SimpsonsCartoon.ged", config);
+            var expectedPersons =
+                    driver.executableQuery("MATCH (person:Person) RETURN person").execute(Collectors.toList()).stream()
+                            .map(record -> asPersons(record, "person"))
+                            .toList();
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+
+            var statistics =
+                    loadGedcom(driver, "SimpsonsCartoon.ged", config).records().get(0);
+
+            var persons =
+                    driver.executableQuery("MATCH (person:Person) RETURN person").execute(Collectors.toList()).stream()
+                            .map(record -> asPersons(record, "person"))
+                            .toList();
+            assertThat(cacheEntries(cacheDirectory)).hasSize(1);
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(statistics.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(persons).containsExactlyInAnyOrderElementsOf(expectedPersons);
+        } finally {
+            deleteDirectory(cacheDirectory);
+        }
+    }
+
+    @Test
+    void reads_parsed_models_from_cache() throws Exception {
+        var cacheDirectory = pathOfResource("ged-files").resolveSibling("gedcom-cache");
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var config = Map.<String, Object>of("parseCache", true);
+            loadGedcom(driver, "SSMARR.ged", config);
+            var ssmarrEntry = cacheEntries(cacheDirectory).get(0);
+            loadGedcom(driver, "SimpsonsCartoon.ged", config);
+            var simpsonsEntry = cacheEntries(cacheDirectory).stream()
+                    .filter(entry -> !entry.equals(ssmarrEntry))
+                    .findFirst()
+                    .orElseThrow();
+            // the cached SSMARR model now stands for the Simpsons file
+            Files.copy(ssmarrEntry, simpsonsEntry, StandardCopyOption.REPLACE_EXISTING);
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+
+            loadGedcom(driver, "SimpsonsCartoon.ged", config);
+
+            var john = new Person(List.of("John"), List.of("Smith"), "M");
+            assertThat(
+                            driver
+                                    .executableQuery("MATCH (person:Person) RETURN person")
+                                    .execute(Collectors.toList())
+                                    .stream()
+                                    .map(record -> asPersons(record, "person")))
+                    .contains(john);
+        } finally {
+            deleteDirectory(cacheDirectory);
+        }
+    }
+
+    @Test
+    void parses_file_again_when_cache_entry_is_corrupt() throws Exception {
+        var cacheDirectory = pathOfResource("ged-files").resolveSibling("gedcom-cache");
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var config = Map.<String, Object>of("parseCache", true);
+            loadGedcom(driver, "SimpsonsCartoon.ged", config);
+            var entry = cacheEntries(cacheDirectory).get(0);
+            // valid prefix, followed by a generator name length far beyond the entry size
+            var corrupt = ByteBuffer.allocate(13)
+                    .putInt(0x47454443)
+                    .putInt(1)
+                    .put((byte) 1)
+                    .putInt(Integer.MAX_VALUE - 8)
+                    .array();
+            Files.write(entry, corrupt);
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+
+            var statistics =
+                    loadGedcom(driver, "SimpsonsCartoon.ged", config).records().get(0);
+
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+        } finally {
+            deleteDirectory(cacheDirectory);
+        }
+    }
+
+    @Test
+    void imports_when_cache_entry_cannot_be_written() throws Exception {
+        var cacheDirectory = pathOfResource("ged-files").resolveSibling("gedcom-cache");
+        // a file standing where the cache directory belongs
+        Files.writeString(cacheDirectory, "");
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var statistics = loadGedcom(driver, "SimpsonsCartoon.ged", Map.of("parseCache", true))
+                    .records()
+                    .get(0);
+
+            assertThat(statistics.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(cacheDirectory).isRegularFile();
+        } finally {
+            Files.delete(cacheDirectory);
+        }
+    }
+
+    @Test
+    void loads_asynchronously() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var jobId = loadGedcomAsync(driver, "SimpsonsCartoon.ged", Map.of("batchSize", 2));
+
+            var status = awaitImport(driver, jobId);
+
+            assertThat(status.get("state").asString()).isEqualTo("COMPLETED");
+            assertThat(status.get("nodesCreated").asLong()).isEqualTo(11);
+            assertThat(status.get("relationshipsCreated").asLong()).isEqualTo(17);
+            assertThat(status.get("processedRecords").asLong()).isEqualTo(14);
+            assertThat(countPersons(driver)).isEqualTo(11);
+        }
+    }
+
+    @Test
+    void cancels_import_between_batches() throws Exception {
+        var model = GedcomImporter.loadModel(
+                pathOfResource("ged-files").resolve("SimpsonsCartoon.ged").toString());
+        var job = new ImportJob("job", "SimpsonsCartoon.ged") {
+            @Override
+            public void batchCommitted(ImportPhase phase, int batchRecords, Statistics statistics) {
+                super.batchCommitted(phase, batchRecords, statistics);
+                cancel();
+            }
+        };
+
+        new GedcomImport(neo4j.defaultDatabaseService(), model, ImportOptions.from(Map.of("batchSize", 1)))
+                .importInBatches(ImportCheckpoint.untracked("SimpsonsCartoon.ged"), job);
+        job.stopped();
+
+        var status = job.status();
+        assertThat(status.state).isEqualTo("CANCELLED");
+        assertThat(status.phase).isEqualTo("PERSONS");
+        assertThat(status.processedRecords).isEqualTo(1L);
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThat(countPersons(driver)).isEqualTo(1L);
+            assertThat(countNodes(driver)).isEqualTo(status.nodesCreated);
+        }
+    }
+
+    @Test
+    void rejects_files_outside_of_import_directory() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThatThrownBy(() -> driver.executableQuery("CALL genealogy.loadGedcom('../REMARR.ged')")
+                            .execute())
+                    .hasMessageContaining("File must be located in the import directory");
+            assertThatThrownBy(() -> loadGedcomAsync(driver, "../REMARR.ged", Map.of()))
+                    .hasMessageContaining("File must be located in the import directory");
+        }
+    }
+
+    @Test
+    void reports_failed_asynchronous_import() throws Exception {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var jobId = loadGedcomAsync(driver, "missing.ged", Map.of());
+
+            var status = awaitImport(driver, jobId);
+
+            assertThat(status.get("state").asString()).isEqualTo("FAILED");
+            assertThat(status.get("error").asString()).isNotEmpty();
+        }
+    }
+
+    private static String loadGedcomAsync(Driver driver, String fileName, Map<String, Object> config) {
+        return driver.executableQuery("CALL genealogy.loadGedcomAsync($fileName, $config) YIELD jobId RETURN jobId")
+                .withParameters(Map.of("fileName", fileName, "config", config))
+                .execute()
+                .records()
+                .get(0)
+                .get("jobId")
+                .asString();
+    }
+
+    private static Record awaitImport(Driver driver, String jobId) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            var status = driver.executableQuery("CALL genealogy.importStatus($jobId)")
+                    .withParameters(Map.of("jobId", jobId))
+                    .execute()
+                    .records()
+                    .get(0);
+            if (!status.get("state").asString().equals("RUNNING") || System.nanoTime() > deadline) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static List<Person> loadPersons(Driver driver) {
+        return driver.executableQuery("MATCH (i:Person) RETURN i").execute().records().stream()
+                .map(record -> asPersons(record, "i"))
+                .toList();
+    }
+
+    private static long countPersons(Driver driver) {
+        return driver.executableQuery("MATCH (p:Person) RETURN count(p) AS count")
+                .execute()
+                .records()
+                .get(0)
+                .get("count")
+                .asLong();
+    }
+
+    private static long countNodes(Driver driver) {
+        return driver.executableQuery("MATCH (n) RETURN count(n) AS count")
+                .execute()
+                .records()
+                .get(0)
+                .get("count")
+                .asLong();
+    }
+
+    private static List<Path> cacheEntries(Path cacheDirectory) throws IOException {
+        try (var entries = Files.list(cacheDirectory)) {
+            return entries.filter(entry -> entry.toString().endsWith(".bin")).toList();
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (var entries = Files.walk(directory)) {
+            for (Path entry : entries.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(entry);
+            }
+        }
+    }
+
+    private static void createCheckpoint(Driver driver, String fileName, String hash, String phase) {
+        driver.executableQuery(
+                        """
+                        CREATE (:GedcomImportCheckpoint {
+                            file: $fileName, hash: $hash, phase: $phase, processed_records: 0
+                        })
+                        """)
+                .withParameters(Map.of("fileName", fileName, "hash", hash, "phase", phase))
+                .execute();
+    }
+
+    private static long countCheckpoints(Driver driver) {
+        return driver.executableQuery("MATCH (c:GedcomImportCheckpoint) RETURN count(c) AS count")
+                .execute()
+                .records()
+                .get(0)
+                .get("count")
+                .asLong();
+    }
+
+    private static String sha256(String fileName) throws Exception {
+        return FileDigests.sha256(pathOfResource("ged-files").resolve(fileName));
+    }
+
     private static FamilyRelation familyRel(Person person1, String relType, Person person2) {
         return new FamilyRelation(relType, person1, person2);
     }
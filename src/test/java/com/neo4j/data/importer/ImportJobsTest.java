@@ -0,0 +1,66 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.neo4j.logging.NullLog;
+
+class ImportJobsTest {
+
+    @Test
+    void caps_running_jobs() throws Exception {
+        var release = new CountDownLatch(1);
+        var jobs = new ArrayList<ImportJob>();
+        try {
+            for (int i = 0; i < ImportJobs.MAX_RUNNING_JOBS; i++) {
+                jobs.add(ImportJobs.submit("my.ged", NullLog.getInstance(), job -> release.await()));
+            }
+
+            assertThatThrownBy(() -> ImportJobs.submit("my.ged", NullLog.getInstance(), job -> {}))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Cannot run more than");
+        } finally {
+            release.countDown();
+        }
+        for (ImportJob job : jobs) {
+            awaitFinished(job);
+        }
+        awaitFinished(ImportJobs.submit("my.ged", NullLog.getInstance(), job -> {}));
+    }
+
+    @Test
+    void forgets_jobs_after_retention() throws Exception {
+        var job = ImportJobs.submit("my.ged", NullLog.getInstance(), importJob -> {});
+        awaitFinished(job);
+        assertThat(ImportJobs.get(job.id())).isSameAs(job);
+
+        ImportJobs.evictFinished(System.nanoTime() + ImportJobs.JOB_RETENTION.toNanos() + 1);
+
+        assertThatThrownBy(() -> ImportJobs.get(job.id()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No GEDCOM import job with id");
+    }
+
+    @Test
+    void reports_errors_as_failures() throws Exception {
+        var job = ImportJobs.submit("my.ged", NullLog.getInstance(), importJob -> {
+            throw new StackOverflowError();
+        });
+        awaitFinished(job);
+
+        assertThat(job.status().state).isEqualTo("FAILED");
+        assertThat(job.status().error).isEqualTo(StackOverflowError.class.getName());
+    }
+
+    private static void awaitFinished(ImportJob job) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (job.status().state.equals("RUNNING") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.status().state).isNotEqualTo("RUNNING");
+    }
+}
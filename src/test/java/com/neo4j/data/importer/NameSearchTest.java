@@ -0,0 +1,132 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.driver.*;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NameSearchTest {
+    private Neo4j neo4j;
+
+    @BeforeAll
+    void initializeNeo4j() throws Exception {
+        this.neo4j = newNeo4j();
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            driver.executableQuery("CALL genealogy.loadGedcom('SimpsonsCartoon.ged')")
+                    .execute();
+            driver.executableQuery("CALL genealogy.loadGedcom('HeredisPreferredName.ged')")
+                    .execute();
+        }
+    }
+
+    @AfterAll
+    void closeNeo4j() {
+        this.neo4j.close();
+    }
+
+    @Test
+    void stores_name_keys() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            var homer = driver.executableQuery("MATCH (p:Person {first_names: ['Homer']}) RETURN p")
+                    .execute()
+                    .records()
+                    .get(0)
+                    .get("p")
+                    .asNode();
+
+            assertThat(homer.get("first_names_normalized").asList(Value::asString))
+                    .containsExactly("homer");
+            assertThat(homer.get("last_names_soundex").asList(Value::asString)).containsExactly("S512");
+            assertThat(homer.get("last_names_daitch_mokotoff").asList(Value::asString))
+                    .containsExactly("467460");
+        }
+    }
+
+    @Test
+    void finds_surname_spelling_variants() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThat(searchName(driver, "Simpsen"))
+                    .containsExactlyInAnyOrder("Abraham", "Bart", "Homer", "Lisa", "Maggie", "Marge", "Mona");
+            assertThat(searchName(driver, "Bouviére"))
+                    .containsExactlyInAnyOrder("Clancy", "Jacqueline", "Patty", "Selma");
+        }
+    }
+
+    @Test
+    void finds_accent_folded_given_names() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThat(searchName(driver, "francoise")).containsExactly("Canan");
+        }
+    }
+
+    @Test
+    void ranks_best_matches_first() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            assertThat(searchName(driver, "Homer Simpson")).first().isEqualTo("Homer");
+        }
+    }
+
+    @Test
+    void finds_nothing_before_any_import() throws Exception {
+        try (var emptyNeo4j = newNeo4j();
+                Driver driver = GraphDatabase.driver(emptyNeo4j.boltURI())) {
+            assertThat(searchName(driver, "Simpson")).isEmpty();
+        }
+    }
+
+    @Test
+    void asks_to_import_again_persons_without_search_keys() throws Exception {
+        try (var emptyNeo4j = newNeo4j();
+                Driver driver = GraphDatabase.driver(emptyNeo4j.boltURI())) {
+            driver.executableQuery("CREATE (:Person {first_names: ['Homer'], last_names: ['Simpson']})")
+                    .execute();
+
+            assertThatThrownBy(() -> searchName(driver, "Simpson"))
+                    .hasMessageContaining("import the GEDCOM files again");
+        }
+    }
+
+    private static List<String> searchName(Driver driver, String name) {
+        return driver
+                .executableQuery(
+                        """
+                        CALL genealogy.searchName($name) YIELD person, score
+                        RETURN person.first_names[0] AS firstName
+                        ORDER BY score DESC
+                        """)
+                .withParameters(Map.of("name", name))
+                .execute(Collectors.toList())
+                .stream()
+                .map(record -> record.get("firstName").asString())
+                .toList();
+    }
+
+    private static Neo4j newNeo4j() throws Exception {
+        return Neo4jBuilders.newInProcessBuilder()
+                .withDisabledServer()
+                .withProcedure(GedcomImporter.class)
+                .withProcedure(NameSearch.class)
+                .withConfig(GraphDatabaseSettings.procedure_unrestricted, List.of("*"))
+                .withConfig(GraphDatabaseSettings.load_csv_file_url_root, pathOfResource("ged-files"))
+                .build();
+    }
+
+    private static Path pathOfResource(String classpathResource) throws Exception {
+        return Path.of(Thread.currentThread()
+                .getContextClassLoader()
+                .getResource(classpathResource)
+                .toURI());
+    }
+}
@@ -0,0 +1,63 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class ParallelBatchWriterTest {
+
+    @Test
+    void never_schedules_families_sharing_a_person_in_the_same_wave() {
+        // two marriages of I1, children of the first family marrying, and unrelated families
+        var families = List.of(
+                Set.of("I1", "I2", "I3", "I4"),
+                Set.of("I1", "I5", "I6"),
+                Set.of("I3", "I7", "I8"),
+                Set.of("I4", "I9"),
+                Set.of("I10", "I11"),
+                Set.of("I6", "I12", "I13"),
+                Set.of("I14", "I15"));
+
+        var waves = ParallelBatchWriter.waves(families, Function.identity());
+
+        assertThat(waves.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(families);
+        for (List<Set<String>> wave : waves) {
+            var personIds = new HashSet<String>();
+            for (Set<String> family : wave) {
+                for (String personId : family) {
+                    assertThat(personIds.add(personId))
+                            .as("%s is linked by several families of wave %s", personId, wave)
+                            .isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    void assigns_each_family_to_the_first_wave_it_fits_in() {
+        var families = List.of(
+                Set.of("I1", "I2", "I3"),
+                Set.of("I1", "I4"),
+                Set.of("I5", "I6"),
+                Set.of("I4", "I7"),
+                Set.of("I3", "I8"));
+
+        var waves = ParallelBatchWriter.waves(families, Function.identity());
+
+        assertThat(waves)
+                .containsExactly(
+                        List.of(Set.of("I1", "I2", "I3"), Set.of("I5", "I6"), Set.of("I4", "I7")),
+                        List.of(Set.of("I1", "I4"), Set.of("I3", "I8")));
+    }
+
+    @Test
+    void schedules_a_single_wave_for_unrelated_families() {
+        var families = List.of(Set.of("I1", "I2"), Set.of("I3", "I4"), Set.of("I5", "I6"));
+
+        assertThat(ParallelBatchWriter.waves(families, Function.identity())).containsExactly(families);
+    }
+}
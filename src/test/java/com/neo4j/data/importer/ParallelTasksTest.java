@@ -0,0 +1,51 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class ParallelTasksTest {
+
+    @Test
+    void returns_results_in_task_order() {
+        var executor = Executors.newFixedThreadPool(2, ParallelTasks.daemonThreads("gedcom-test"));
+        try {
+            List<Callable<String>> tasks = List.of(
+                    () -> Thread.currentThread().getName().startsWith("gedcom-test-") ? "first" : "?",
+                    () -> "second",
+                    () -> "third");
+
+            assertThat(ParallelTasks.invokeAll(executor, tasks, "testing")).containsExactly("first", "second", "third");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rethrows_task_failures() {
+        var executor = Executors.newFixedThreadPool(2, ParallelTasks.daemonThreads("gedcom-test"));
+        try {
+            List<Callable<Void>> unchecked = List.of(() -> {
+                throw new IllegalArgumentException("unchecked");
+            });
+            List<Callable<Void>> checked = List.of(() -> {
+                throw new IOException("checked");
+            });
+
+            assertThatThrownBy(() -> ParallelTasks.invokeAll(executor, unchecked, "testing"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("unchecked");
+            assertThatThrownBy(() -> ParallelTasks.invokeAll(executor, checked, "testing"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Failed while testing")
+                    .hasCauseInstanceOf(IOException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.neo4j.data.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PedigreeAnalysisTest {
+    private Neo4j neo4j;
+
+    @BeforeAll
+    void initializeNeo4j() throws Exception {
+        this.neo4j = Neo4jBuilders.newInProcessBuilder()
+                .withDisabledServer()
+                .withProcedure(GedcomImporter.class)
+                .withProcedure(PedigreeAnalysis.class)
+                .withConfig(GraphDatabaseSettings.procedure_unrestricted, List.of("*"))
+                .withConfig(GraphDatabaseSettings.load_csv_file_url_root, pathOfResource("ged-files"))
+                .build();
+    }
+
+    @AfterAll
+    void closeNeo4j() {
+        this.neo4j.close();
+    }
+
+    @AfterEach
+    void afterEach() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            driver.executableQuery("MATCH (n) detach delete n").execute();
+        }
+    }
+
+    @Test
+    void computes_inbreeding_coefficients() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "CousinMarriage.ged");
+
+            // Edmond is the child of first cousins
+            assertThat(inbreeding(driver, List.of("Edmond", "Charles", "Gustave")))
+                    .containsExactlyInAnyOrderEntriesOf(Map.of("Edmond", 0.0625, "Charles", 0.0, "Gustave", 0.0));
+        }
+    }
+
+    @Test
+    void computes_pairwise_relatedness() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "CousinMarriage.ged");
+
+            var siblings = relatedness(driver, "Adrien", "Berthe");
+            assertThat(siblings.get("coancestry").asDouble()).isEqualTo(0.25);
+            assertThat(siblings.get("relatedness").asDouble()).isEqualTo(0.5);
+            var cousins = relatedness(driver, "Charles", "Denise");
+            assertThat(cousins.get("coancestry").asDouble()).isEqualTo(0.0625);
+            assertThat(cousins.get("relatedness").asDouble()).isEqualTo(0.125);
+            var spouses = relatedness(driver, "Gustave", "Gabrielle");
+            assertThat(spouses.get("coancestry").asDouble()).isEqualTo(0.0);
+            // Edmond shares half of his genes with his father, and more through his mother
+            var inbredChildAndParent = relatedness(driver, "Edmond", "Charles");
+            assertThat(inbredChildAndParent.get("coancestry").asDouble()).isEqualTo(0.28125);
+            assertThat(inbredChildAndParent.get("relatedness").asDouble())
+                    .isCloseTo(0.5625 / Math.sqrt(1.0625), within(1e-12));
+        }
+    }
+
+    @Test
+    void returns_all_pairs_of_persons() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "CousinMarriage.ged");
+
+            var pairs = driver.executableQuery(
+                            """
+                            MATCH (p:Person)
+                            WITH collect(p) AS persons
+                            CALL genealogy.relatedness(persons) YIELD person1, person2
+                            RETURN count(*) AS pairs
+                            """)
+                    .execute()
+                    .records()
+                    .get(0)
+                    .get("pairs")
+                    .asLong();
+
+            assertThat(pairs).isEqualTo(9 * 8 / 2);
+        }
+    }
+
+    @Test
+    void rebuilds_pedigree_after_import() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "CousinMarriage.ged");
+            assertThat(inbreeding(driver, List.of("Edmond"))).containsEntry("Edmond", 0.0625);
+
+            driver.executableQuery("MATCH (:Person {first_names: ['Charles']})-[r:CHILD_OF]->() DELETE r")
+                    .execute();
+            loadGedcom(driver, "REMARR.ged");
+
+            assertThat(inbreeding(driver, List.of("Edmond"))).containsEntry("Edmond", 0.0);
+        }
+    }
+
+    @Test
+    void clears_pedigree_cache() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "CousinMarriage.ged");
+            assertThat(Pedigrees.size()).isZero();
+            assertThat(inbreeding(driver, List.of("Edmond"))).containsEntry("Edmond", 0.0625);
+            assertThat(Pedigrees.size()).isEqualTo(1);
+
+            driver.executableQuery("CALL genealogy.clearPedigreeCache()").execute();
+
+            assertThat(Pedigrees.size()).isZero();
+            assertThat(inbreeding(driver, List.of("Edmond"))).containsEntry("Edmond", 0.0625);
+        }
+    }
+
+    @Test
+    void rejects_nodes_other_than_persons() {
+        try (Driver driver = GraphDatabase.driver(neo4j.boltURI())) {
+            loadGedcom(driver, "CousinMarriage.ged");
+
+            assertThatThrownBy(() -> driver.executableQuery(
+                                    "CREATE (n:Place) WITH n CALL genealogy.inbreeding([n]) YIELD coefficient RETURN *")
+                            .execute())
+                    .hasMessageContaining("Expected a :Person node");
+        }
+    }
+
+    private static void loadGedcom(Driver driver, String fileName) {
+        driver.executableQuery("CALL genealogy.loadGedcom($fileName)")
+                .withParameters(Map.of("fileName", fileName))
+                .execute();
+    }
+
+    private static Map<String, Double> inbreeding(Driver driver, List<String> firstNames) {
+        return driver.executableQuery(
+                        """
+                        MATCH (p:Person) WHERE p.first_names[0] IN $firstNames
+                        WITH collect(p) AS persons
+                        CALL genealogy.inbreeding(persons) YIELD person, coefficient
+                        RETURN person.first_names[0] AS name, coefficient
+                        """)
+                .withParameters(Map.of("firstNames", firstNames))
+                .execute(Collectors.toMap(record -> record.get("name").asString(), record -> record.get("coefficient")
+                        .asDouble()));
+    }
+
+    private static Record relatedness(Driver driver, String firstName1, String firstName2) {
+        return driver.executableQuery(
+                        """
+                        MATCH (p1:Person {first_names: [$firstName1]}), (p2:Person {first_names: [$firstName2]})
+                        CALL genealogy.relatedness([p1, p2]) YIELD coancestry, relatedness
+                        RETURN coancestry, relatedness
+                        """)
+                .withParameters(Map.of("firstName1", firstName1, "firstName2", firstName2))
+                .execute()
+                .records()
+                .get(0);
+    }
+
+    private static Path pathOfResource(String classpathResource) throws Exception {
+        return Path.of(Thread.currentThread()
+                .getContextClassLoader()
+                .getResource(classpathResource)
+                .toURI());
+    }
+}
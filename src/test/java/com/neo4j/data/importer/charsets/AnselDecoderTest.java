@@ -0,0 +1,83 @@
+package com.neo4j.data.importer.charsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class AnselDecoderTest {
+
+    private static final byte ACUTE = (byte) 0xE2;
+
+    private static final byte CEDILLA = (byte) 0xF0;
+
+    @Test
+    void composes_diacritics_with_following_character() throws Exception {
+        var decoded = AnselCharset.INSTANCE.newDecoder().decode(ByteBuffer.wrap(bytes(ACUTE, 'e', 'l', CEDILLA, 'c')));
+
+        assertThat(decoded.toString()).isEqualTo("élç");
+    }
+
+    @Test
+    void composes_diacritics_split_across_inputs() {
+        var decoder = AnselCharset.INSTANCE.newDecoder();
+        var out = CharBuffer.allocate(16);
+
+        decoder.decode(ByteBuffer.wrap(bytes('r', ACUTE)), out, false);
+        decoder.decode(ByteBuffer.wrap(bytes('e', 's')), out, true);
+        decoder.flush(out);
+
+        assertThat(out.flip().toString()).isEqualTo("rés");
+    }
+
+    @Test
+    void decodes_direct_buffers() throws Exception {
+        var bytes = bytes('N', (byte) 0xB2, 'r', ACUTE, 'e', 'z');
+        var in = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        var decoded = AnselCharset.INSTANCE.newDecoder().decode(in);
+
+        assertThat(decoded.toString()).isEqualTo("Nøréz");
+    }
+
+    @Test
+    void emits_diacritics_left_at_end_of_input() throws Exception {
+        var decoded = AnselCharset.INSTANCE.newDecoder().decode(ByteBuffer.wrap(bytes('A', ACUTE)));
+
+        assertThat(decoded.toString()).isEqualTo("A\u0301");
+    }
+
+    @Test
+    void emits_long_runs_of_diacritics_as_is() {
+        var bytes = new byte[9001];
+        Arrays.fill(bytes, ACUTE);
+        bytes[9000] = 'e';
+
+        var decoded = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            var result = new StringWriter();
+            try (var reader = new InputStreamReader(new ByteArrayInputStream(bytes), AnselCharset.INSTANCE)) {
+                reader.transferTo(result);
+            }
+            return result.toString();
+        });
+
+        // only the last held diacritics reach the base character, the first one composing with it
+        int heldMarks = AnselDecoder.MAX_PENDING_MARKS;
+        assertThat(decoded).isEqualTo("\u0301".repeat(9000 - heldMarks) + "é" + "\u0301".repeat(heldMarks - 1));
+    }
+
+    private static byte[] bytes(Object... values) {
+        var result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i] instanceof Character c ? (byte) c.charValue() : (Byte) values[i];
+        }
+        return result;
+    }
+}